@@ -3,16 +3,24 @@ package dev.azuremyst.azuremenus;
 import dev.azuremyst.azuremenus.config.ConfigManager;
 import dev.azuremyst.azuremenus.commands.AzureMenusCommand;
 import dev.azuremyst.azuremenus.language.LanguageManager;
+import dev.azuremyst.azuremenus.leaderboard.LeaderboardManager;
 import dev.azuremyst.azuremenus.menu.MenuManager;
+import dev.azuremyst.azuremenus.menu.items.SkullProfileCache;
 import dev.azuremyst.azuremenus.placeholders.PlaceholderService;
+import dev.azuremyst.azuremenus.actions.ActionExecutor;
 import dev.azuremyst.azuremenus.actions.ActionRegistry;
 import dev.azuremyst.azuremenus.animation.AnimationEngine;
+import dev.azuremyst.azuremenus.datasource.DataSourceRegistry;
 import dev.azuremyst.azuremenus.economy.EconomyService;
 import dev.azuremyst.azuremenus.listeners.MenuListener;
 import dev.azuremyst.azuremenus.utils.ColorUtil;
+import dev.azuremyst.azuremenus.utils.WorkerPool;
 import net.kyori.adventure.text.Component;
 import org.bukkit.plugin.java.JavaPlugin;
+import org.bukkit.scheduler.BukkitRunnable;
+import org.bukkit.scheduler.BukkitTask;
 
+import java.util.concurrent.CompletableFuture;
 import java.util.logging.Level;
 
 /**
@@ -30,9 +38,16 @@ public final class AzureMenusPlugin extends JavaPlugin {
     private LanguageManager languageManager;
     private MenuManager menuManager;
     private PlaceholderService placeholderService;
+    private SkullProfileCache skullProfileCache;
     private ActionRegistry actionRegistry;
+    private ActionExecutor actionExecutor;
+    private DataSourceRegistry dataSourceRegistry;
+    private LeaderboardManager leaderboardManager;
     private AnimationEngine animationEngine;
     private EconomyService economyService;
+    private WorkerPool workerPool;
+    
+    private BukkitTask cacheCleanupTask;
     
     @Override
     public void onLoad() {
@@ -47,8 +62,12 @@ public final class AzureMenusPlugin extends JavaPlugin {
             this.configManager = new ConfigManager(this);
             this.languageManager = new LanguageManager(this);
             this.placeholderService = new PlaceholderService(this);
+            this.skullProfileCache = new SkullProfileCache(this);
             this.economyService = new EconomyService(this);
             this.actionRegistry = new ActionRegistry(this);
+            this.actionExecutor = new ActionExecutor(this);
+            this.dataSourceRegistry = new DataSourceRegistry(this);
+            this.leaderboardManager = new LeaderboardManager(this);
             this.animationEngine = new AnimationEngine(this);
             this.menuManager = new MenuManager(this);
             
@@ -57,10 +76,19 @@ public final class AzureMenusPlugin extends JavaPlugin {
             
             // Register event listeners
             getServer().getPluginManager().registerEvents(new MenuListener(this), this);
+            getServer().getPluginManager().registerEvents(menuManager.getSearchPrompt(), this);
             
             // Load configurations
             configManager.loadConfig();
+            this.workerPool = new WorkerPool(getLogger(), 
+                configManager.isVirtualThreads(), configManager.getWorkerThreads());
+            startCacheCleanup();
             languageManager.loadLanguages();
+            placeholderService.load();
+            skullProfileCache.load();
+            leaderboardManager.load();
+            
+            // Menus are parsed in the background; opens are queued until they are registered
             menuManager.loadMenus();
             
             getLogger().info(ColorUtil.stripColor(languageManager.getMessage("plugin.enabled")));
@@ -75,18 +103,38 @@ public final class AzureMenusPlugin extends JavaPlugin {
     public void onDisable() {
         try {
             // Clean shutdown
+            if (cacheCleanupTask != null) {
+                cacheCleanupTask.cancel();
+            }
+            
             if (animationEngine != null) {
                 animationEngine.shutdown();
             }
             
+            if (actionExecutor != null) {
+                actionExecutor.shutdown();
+            }
+            
             if (menuManager != null) {
-                menuManager.closeAllMenus();
+                menuManager.shutdown();
             }
             
             if (placeholderService != null) {
                 placeholderService.unregister();
             }
             
+            if (skullProfileCache != null) {
+                skullProfileCache.save();
+            }
+            
+            if (leaderboardManager != null) {
+                leaderboardManager.shutdown();
+            }
+            
+            if (workerPool != null) {
+                workerPool.shutdown();
+            }
+            
             getLogger().info(ColorUtil.stripColor(languageManager != null ? 
                 languageManager.getMessage("plugin.disabled") : 
                 "<gradient:#8A2BE2:#00BFFF>AzureMenus отключён</gradient>"));
@@ -100,26 +148,70 @@ public final class AzureMenusPlugin extends JavaPlugin {
     
     /**
      * Reload all plugin components
+     *
+     * @return future completing on the main thread once menus are loaded again
      */
-    public void reload() {
+    public CompletableFuture<Void> reload() {
         try {
             getLogger().info("Reloading AzureMenus...");
             
-            // Close all open menus
-            menuManager.closeAllMenus();
-            
-            // Reload configurations
+            // Reload configurations; open menus stay open and are moved to the new definitions
             configManager.loadConfig();
+            startCacheCleanup();
             languageManager.loadLanguages();
-            menuManager.loadMenus();
-            
-            getLogger().info(ColorUtil.stripColor(languageManager.getMessage("plugin.reloaded")));
+            placeholderService.load();
+            skullProfileCache.load();
+            leaderboardManager.load();
+            return menuManager.loadMenus().thenRun(() -> 
+                getLogger().info(ColorUtil.stripColor(languageManager.getMessage("plugin.reloaded"))));
             
         } catch (Exception e) {
             getLogger().log(Level.SEVERE, "Failed to reload AzureMenus!", e);
+            return CompletableFuture.failedFuture(e);
         }
     }
     
+    /**
+     * Apply cache limits and (re)start the periodic cache cleanup
+     */
+    private void startCacheCleanup() {
+        ColorUtil.setCacheSize(configManager.getComponentCacheSize());
+        
+        if (cacheCleanupTask != null) {
+            cacheCleanupTask.cancel();
+            cacheCleanupTask = null;
+        }
+        
+        int intervalMinutes = configManager.getCacheCleanupInterval();
+        if (intervalMinutes <= 0) {
+            return;
+        }
+        
+        long intervalTicks = intervalMinutes * 60L * 20L;
+        long idleMillis = intervalMinutes * 60_000L;
+        
+        cacheCleanupTask = new BukkitRunnable() {
+            @Override
+            public void run() {
+                int removed = ColorUtil.cleanupCache(idleMillis);
+                int expired = placeholderService.cleanupCache();
+                int evicted = menuManager.evictIdleMenus(idleMillis);
+                workerPool.run(skullProfileCache::save);
+                
+                if (configManager.isDebugMode()) {
+                    getLogger().info("Cache cleanup removed " + removed + " component(s), " 
+                        + expired + " placeholder value(s) and " + evicted + " idle menu(s)");
+                    getLogger().info("Components: " + ColorUtil.getCacheStats());
+                    getLogger().info("Placeholders: " + placeholderService.getCacheStats());
+                    getLogger().info("Menus: " + menuManager.getMenuCacheStats());
+                    getLogger().info("Clicks: " + menuManager.getClickLimiter().getStats());
+                    getLogger().info("Delayed actions: "
+                        + actionExecutor.getDelayedActionScheduler().getPendingCount() + " pending");
+                }
+            }
+        }.runTaskTimer(this, intervalTicks, intervalTicks);
+    }
+    
     // Getters
     public static AzureMenusPlugin getInstance() {
         return instance;
@@ -145,6 +237,18 @@ public final class AzureMenusPlugin extends JavaPlugin {
         return actionRegistry;
     }
     
+    public ActionExecutor getActionExecutor() {
+        return actionExecutor;
+    }
+    
+    public DataSourceRegistry getDataSourceRegistry() {
+        return dataSourceRegistry;
+    }
+    
+    public LeaderboardManager getLeaderboardManager() {
+        return leaderboardManager;
+    }
+    
     public AnimationEngine getAnimationEngine() {
         return animationEngine;
     }
@@ -152,4 +256,12 @@ public final class AzureMenusPlugin extends JavaPlugin {
     public EconomyService getEconomyService() {
         return economyService;
     }
+    
+    public WorkerPool getWorkerPool() {
+        return workerPool;
+    }
+    
+    public SkullProfileCache getSkullProfileCache() {
+        return skullProfileCache;
+    }
 }
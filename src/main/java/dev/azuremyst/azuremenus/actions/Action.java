@@ -1,8 +1,11 @@
 package dev.azuremyst.azuremenus.actions;
 
+import dev.azuremyst.azuremenus.menu.condition.ConditionContext;
 import org.bukkit.entity.Player;
 import org.bukkit.event.inventory.ClickType;
 
+import java.util.concurrent.CompletableFuture;
+
 /**
  * Interface for menu actions
  */
@@ -13,18 +16,42 @@ public interface Action {
      */
     boolean canExecute(Player player, ClickType clickType);
     
+    /**
+     * Check if this action can be executed, answering permission checks from the context
+     */
+    default boolean canExecute(ConditionContext context, ClickType clickType) {
+        return canExecute(context.getPlayer(), clickType);
+    }
+    
     /**
      * Execute the action
      */
     void execute(Player player, ClickType clickType);
     
+    /**
+     * Run the action and complete once it has finished.
+     * Actions with slow work override this to chain stages through the executor, for example a
+     * database lookup on {@link ExecutionMode#VIRTUAL} followed by a message on {@link ExecutionMode#MAIN}.
+     * Bukkit API calls belong in main thread stages. The default runs {@link #execute} on the main thread.
+     */
+    default CompletableFuture<Void> run(Player player, ClickType clickType, ActionExecutor executor) {
+        return executor.run(ExecutionMode.MAIN, () -> execute(player, clickType));
+    }
+    
     /**
      * Get the action type identifier
      */
     String getType();
     
     /**
-     * Check if this action should be executed asynchronously
+     * Get the permission required to execute this action, or null if there is none
+     */
+    default String getPermission() {
+        return null;
+    }
+    
+    /**
+     * Check if this action completes after the click that triggered it has been handled
      */
     default boolean isAsync() {
         return false;
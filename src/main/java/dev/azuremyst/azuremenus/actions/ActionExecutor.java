@@ -0,0 +1,139 @@
+package dev.azuremyst.azuremenus.actions;
+
+import dev.azuremyst.azuremenus.AzureMenusPlugin;
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+import org.bukkit.event.inventory.ClickType;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+
+/**
+ * Runs actions as chains of stages, moving each stage to the thread it declares.
+ * Main thread stages run inline when already on the server thread, so actions without
+ * slow stages still finish within the click that triggered them.
+ */
+public class ActionExecutor {
+    
+    private final AzureMenusPlugin plugin;
+    private final DelayedActionScheduler delays;
+    
+    public ActionExecutor(AzureMenusPlugin plugin) {
+        this.plugin = plugin;
+        this.delays = new DelayedActionScheduler(plugin);
+    }
+    
+    /**
+     * Run a stage on the given thread and complete with its result
+     */
+    public <T> CompletableFuture<T> supply(ExecutionMode mode, Supplier<T> task) {
+        return switch (mode) {
+            case MAIN -> onMain(task);
+            case WORKER -> plugin.getWorkerPool().supply(task);
+            case VIRTUAL -> plugin.getWorkerPool().supplyVirtual(task);
+        };
+    }
+    
+    /**
+     * Run a stage on the given thread
+     */
+    public CompletableFuture<Void> run(ExecutionMode mode, Runnable task) {
+        return supply(mode, () -> {
+            task.run();
+            return null;
+        });
+    }
+    
+    /**
+     * Run a task on the main thread during a later tick, outside the event currently being handled
+     */
+    public CompletableFuture<Void> nextTick(Runnable task) {
+        CompletableFuture<Void> future = new CompletableFuture<>();
+        schedule(future, () -> {
+            task.run();
+            return null;
+        });
+        return future;
+    }
+    
+    /**
+     * Complete on the main thread after the given number of ticks, or be cancelled if the player leaves first
+     */
+    public CompletableFuture<Void> delay(Player player, long ticks) {
+        UUID playerId = player.getUniqueId();
+        return onMain(() -> delays.schedule(playerId, ticks)).thenCompose(future -> future);
+    }
+    
+    /**
+     * Cancel the pending delays of a player, stopping their chains where they wait
+     */
+    public void cancel(UUID playerId) {
+        delays.cancel(playerId);
+    }
+    
+    /**
+     * Cancel all pending delays
+     */
+    public void shutdown() {
+        delays.stop();
+    }
+    
+    public DelayedActionScheduler getDelayedActionScheduler() {
+        return delays;
+    }
+    
+    /**
+     * Run the actions of a click one after another, each starting once the previous one completed.
+     * A failing action is logged and stops the rest of the chain; a cancelled one stops it silently.
+     */
+    public CompletableFuture<Void> execute(List<Action> actions, Player player, ClickType clickType) {
+        CompletableFuture<Void> chain = CompletableFuture.completedFuture(null);
+        for (Action action : actions) {
+            chain = chain.thenCompose(ignored -> player.isOnline()
+                ? action.run(player, clickType, this)
+                : CompletableFuture.completedFuture(null));
+        }
+        
+        return chain.exceptionally(error -> {
+            Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+            if (cause instanceof CancellationException) {
+                return null;
+            }
+            plugin.getLogger().warning("Action failed for player " + player.getName() + ": " + cause.getMessage());
+            return null;
+        });
+    }
+    
+    private <T> CompletableFuture<T> onMain(Supplier<T> task) {
+        if (Bukkit.isPrimaryThread()) {
+            try {
+                return CompletableFuture.completedFuture(task.get());
+            } catch (Exception e) {
+                return CompletableFuture.failedFuture(e);
+            }
+        }
+        
+        CompletableFuture<T> future = new CompletableFuture<>();
+        schedule(future, task);
+        return future;
+    }
+    
+    private <T> void schedule(CompletableFuture<T> future, Supplier<T> task) {
+        if (!plugin.isEnabled()) {
+            future.completeExceptionally(new IllegalStateException("AzureMenus is disabled"));
+            return;
+        }
+        
+        Bukkit.getScheduler().runTask(plugin, () -> {
+            try {
+                future.complete(task.get());
+            } catch (Exception e) {
+                future.completeExceptionally(e);
+            }
+        });
+    }
+}
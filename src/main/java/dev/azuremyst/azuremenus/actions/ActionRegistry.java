@@ -57,6 +57,22 @@ public class ActionRegistry {
             String permission = (String) config.get("permission");
             return new CloseMenuAction(clickTypes, permission);
         });
+        
+        // Search in the content of a paginated menu
+        register("search", config -> {
+            boolean clear = Boolean.parseBoolean(String.valueOf(config.get("clear")));
+            Set<ClickType> clickTypes = parseClickTypes(config.get("click-types"));
+            String permission = (String) config.get("permission");
+            return new SearchAction(clear, clickTypes, permission);
+        });
+        
+        // Chain of actions run one after another
+        register("chain", config -> {
+            List<Action> steps = parseSteps(config.get("actions"));
+            Set<ClickType> clickTypes = parseClickTypes(config.get("click-types"));
+            String permission = (String) config.get("permission");
+            return new ChainAction(steps, clickTypes, permission);
+        });
     }
     
     /**
@@ -77,7 +93,9 @@ public class ActionRegistry {
         }
         
         try {
-            return factory.create(config);
+            Action action = factory.create(config);
+            long delay = parseDelay(config.get("delay"));
+            return action != null && delay > 0 ? new DelayedAction(action, delay) : action;
         } catch (Exception e) {
             plugin.getLogger().warning("Failed to create action of type " + type + ": " + e.getMessage());
             return null;
@@ -111,6 +129,45 @@ public class ActionRegistry {
         return result.isEmpty() ? null : result;
     }
     
+    /**
+     * Parse the steps of a chain, skipping ones that fail to load
+     */
+    private List<Action> parseSteps(Object value) {
+        List<Action> steps = new ArrayList<>();
+        if (!(value instanceof List<?> list)) {
+            return steps;
+        }
+        
+        for (Object item : list) {
+            if (item instanceof Map<?, ?> map && map.get("type") != null) {
+                @SuppressWarnings("unchecked")
+                Map<String, Object> stepConfig = (Map<String, Object>) map;
+                Action step = createAction(String.valueOf(stepConfig.get("type")), stepConfig);
+                if (step != null) {
+                    steps.add(step);
+                }
+            }
+        }
+        return steps;
+    }
+    
+    /**
+     * Parse a delay in ticks from configuration
+     */
+    private long parseDelay(Object value) {
+        if (value == null) return 0;
+        
+        if (value instanceof Number number) {
+            return number.longValue();
+        }
+        try {
+            return Long.parseLong(value.toString().trim());
+        } catch (NumberFormatException e) {
+            plugin.getLogger().warning("Invalid action delay: " + value);
+            return 0;
+        }
+    }
+    
     /**
      * Parse string list from configuration
      */
@@ -0,0 +1,122 @@
+package dev.azuremyst.azuremenus.actions;
+
+import dev.azuremyst.azuremenus.AzureMenusPlugin;
+import dev.azuremyst.azuremenus.utils.TimingWheel;
+import org.bukkit.scheduler.BukkitRunnable;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Single scheduler for the delays of every action chain.
+ * Pending delays sit in one timing wheel advanced by one task, which only runs while something is waiting,
+ * so a thousand delayed clicks cost one task instead of a thousand.
+ * Only used from the main thread.
+ */
+public class DelayedActionScheduler {
+    
+    private final AzureMenusPlugin plugin;
+    private final TimingWheel<Pending> wheel;
+    private final Map<UUID, Set<Pending>> pendingByPlayer;
+    
+    private BukkitTask task;
+    
+    public DelayedActionScheduler(AzureMenusPlugin plugin) {
+        this.plugin = plugin;
+        this.wheel = new TimingWheel<>(256);
+        this.pendingByPlayer = new HashMap<>();
+    }
+    
+    /**
+     * Get a future completing on the main thread after the given number of ticks.
+     * The future is cancelled if the player leaves first.
+     */
+    public CompletableFuture<Void> schedule(UUID playerId, long delayTicks) {
+        if (!plugin.isEnabled()) {
+            return CompletableFuture.failedFuture(new IllegalStateException("AzureMenus is disabled"));
+        }
+        
+        Pending pending = new Pending(playerId, new CompletableFuture<>());
+        wheel.schedule(pending, delayTicks);
+        pendingByPlayer.computeIfAbsent(playerId, id -> new HashSet<>()).add(pending);
+        
+        if (task == null) {
+            task = new BukkitRunnable() {
+                @Override
+                public void run() {
+                    tick();
+                }
+            }.runTaskTimer(plugin, 1L, 1L);
+        }
+        return pending.future();
+    }
+    
+    /**
+     * Cancel every delay a player is waiting on, stopping the rest of their chains
+     */
+    public void cancel(UUID playerId) {
+        Set<Pending> pending = pendingByPlayer.remove(playerId);
+        if (pending == null) {
+            return;
+        }
+        // Cancelled entries stay in the wheel and are skipped when they come due
+        for (Pending entry : pending) {
+            entry.future().cancel(false);
+        }
+    }
+    
+    /**
+     * Cancel all pending delays and stop ticking
+     */
+    public void stop() {
+        for (UUID playerId : Set.copyOf(pendingByPlayer.keySet())) {
+            cancel(playerId);
+        }
+        wheel.clear();
+        if (task != null) {
+            task.cancel();
+            task = null;
+        }
+    }
+    
+    /**
+     * Get the number of delays still waiting, including cancelled ones not yet due
+     */
+    public int getPendingCount() {
+        return wheel.size();
+    }
+    
+    private void tick() {
+        wheel.advance(this::complete);
+        
+        if (wheel.size() == 0 && task != null) {
+            task.cancel();
+            task = null;
+        }
+    }
+    
+    private void complete(Pending pending) {
+        if (pending.future().isDone()) {
+            return;
+        }
+        
+        Set<Pending> pendingForPlayer = pendingByPlayer.get(pending.playerId());
+        if (pendingForPlayer != null) {
+            pendingForPlayer.remove(pending);
+            if (pendingForPlayer.isEmpty()) {
+                pendingByPlayer.remove(pending.playerId());
+            }
+        }
+        
+        // Runs the next steps of the chain right here, on the main thread
+        pending.future().complete(null);
+    }
+    
+    private record Pending(UUID playerId, CompletableFuture<Void> future) {
+    }
+}
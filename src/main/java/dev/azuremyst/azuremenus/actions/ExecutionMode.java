@@ -0,0 +1,22 @@
+package dev.azuremyst.azuremenus.actions;
+
+/**
+ * Thread a stage of an action runs on
+ */
+public enum ExecutionMode {
+    
+    /**
+     * The server thread, required for any Bukkit API call
+     */
+    MAIN,
+    
+    /**
+     * The plugin's worker pool, for CPU work and short blocking calls
+     */
+    WORKER,
+    
+    /**
+     * A virtual thread of its own, for I/O that may block for a long time
+     */
+    VIRTUAL
+}
@@ -0,0 +1,96 @@
+package dev.azuremyst.azuremenus.actions.impl;
+
+import dev.azuremyst.azuremenus.AzureMenusPlugin;
+import dev.azuremyst.azuremenus.actions.Action;
+import dev.azuremyst.azuremenus.actions.ActionExecutor;
+import dev.azuremyst.azuremenus.actions.ExecutionMode;
+import dev.azuremyst.azuremenus.menu.condition.ConditionContext;
+import org.bukkit.entity.Player;
+import org.bukkit.event.inventory.ClickType;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Action running a list of steps one after another.
+ * Each step is checked when its turn comes, so steps after a delay see the player as they are then.
+ */
+public class ChainAction implements Action {
+    
+    private final List<Action> steps;
+    private final Set<ClickType> allowedClickTypes;
+    private final String permission;
+    
+    public ChainAction(List<Action> steps, Set<ClickType> allowedClickTypes, String permission) {
+        this.steps = List.copyOf(steps);
+        this.allowedClickTypes = allowedClickTypes;
+        this.permission = permission;
+    }
+    
+    @Override
+    public boolean canExecute(Player player, ClickType clickType) {
+        return canExecute(ConditionContext.of(player), clickType);
+    }
+    
+    @Override
+    public boolean canExecute(ConditionContext context, ClickType clickType) {
+        // Check click type
+        if (allowedClickTypes != null && !allowedClickTypes.isEmpty()) {
+            if (!allowedClickTypes.contains(clickType)) {
+                return false;
+            }
+        }
+        
+        // Check permission
+        if (permission != null && !permission.isEmpty()) {
+            if (!context.hasPermission(permission)) {
+                return false;
+            }
+        }
+        
+        return true;
+    }
+    
+    @Override
+    public void execute(Player player, ClickType clickType) {
+        run(player, clickType, AzureMenusPlugin.getInstance().getActionExecutor());
+    }
+    
+    @Override
+    public CompletableFuture<Void> run(Player player, ClickType clickType, ActionExecutor executor) {
+        CompletableFuture<Void> chain = CompletableFuture.completedFuture(null);
+        for (Action step : steps) {
+            chain = chain.thenCompose(ignored -> executor.supply(ExecutionMode.MAIN,
+                    () -> player.isOnline() && step.canExecute(player, clickType))
+                .thenCompose(allowed -> allowed
+                    ? step.run(player, clickType, executor)
+                    : CompletableFuture.completedFuture(null)));
+        }
+        return chain;
+    }
+    
+    @Override
+    public String getType() {
+        return "chain";
+    }
+    
+    @Override
+    public boolean isAsync() {
+        return steps.stream().anyMatch(Action::isAsync);
+    }
+    
+    // Getters
+    public List<Action> getSteps() {
+        return steps;
+    }
+    
+    public Set<ClickType> getAllowedClickTypes() {
+        return allowedClickTypes;
+    }
+    
+    @Override
+    public String getPermission() {
+        return permission;
+    }
+}
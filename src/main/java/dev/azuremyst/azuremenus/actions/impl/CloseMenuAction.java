@@ -1,6 +1,7 @@
 package dev.azuremyst.azuremenus.actions.impl;
 
 import dev.azuremyst.azuremenus.actions.Action;
+import dev.azuremyst.azuremenus.menu.condition.ConditionContext;
 import org.bukkit.entity.Player;
 import org.bukkit.event.inventory.ClickType;
 
@@ -21,6 +22,11 @@ public class CloseMenuAction implements Action {
     
     @Override
     public boolean canExecute(Player player, ClickType clickType) {
+        return canExecute(ConditionContext.of(player), clickType);
+    }
+    
+    @Override
+    public boolean canExecute(ConditionContext context, ClickType clickType) {
         // Check click type
         if (allowedClickTypes != null && !allowedClickTypes.isEmpty()) {
             if (!allowedClickTypes.contains(clickType)) {
@@ -30,7 +36,7 @@ public class CloseMenuAction implements Action {
         
         // Check permission
         if (permission != null && !permission.isEmpty()) {
-            if (!player.hasPermission(permission)) {
+            if (!context.hasPermission(permission)) {
                 return false;
             }
         }
@@ -53,6 +59,7 @@ public class CloseMenuAction implements Action {
         return allowedClickTypes;
     }
     
+    @Override
     public String getPermission() {
         return permission;
     }
@@ -2,14 +2,16 @@ package dev.azuremyst.azuremenus.actions.impl;
 
 import dev.azuremyst.azuremenus.AzureMenusPlugin;
 import dev.azuremyst.azuremenus.actions.Action;
-import me.clip.placeholderapi.PlaceholderAPI;
+import dev.azuremyst.azuremenus.actions.ActionExecutor;
+import dev.azuremyst.azuremenus.menu.condition.ConditionContext;
+import dev.azuremyst.azuremenus.placeholders.PlaceholderTemplate;
 import org.bukkit.Bukkit;
 import org.bukkit.entity.Player;
 import org.bukkit.event.inventory.ClickType;
-import org.bukkit.scheduler.BukkitRunnable;
 
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Action that executes commands
@@ -17,6 +19,7 @@ import java.util.Set;
 public class CommandAction implements Action {
     
     private final List<String> commands;
+    private final List<PlaceholderTemplate> commandTemplates;
     private final boolean asConsole;
     private final Set<ClickType> allowedClickTypes;
     private final String permission;
@@ -25,6 +28,7 @@ public class CommandAction implements Action {
     public CommandAction(List<String> commands, boolean asConsole, 
                         Set<ClickType> allowedClickTypes, String permission, boolean async) {
         this.commands = commands != null ? commands : List.of();
+        this.commandTemplates = this.commands.stream().map(PlaceholderTemplate::compile).toList();
         this.asConsole = asConsole;
         this.allowedClickTypes = allowedClickTypes;
         this.permission = permission;
@@ -33,6 +37,11 @@ public class CommandAction implements Action {
     
     @Override
     public boolean canExecute(Player player, ClickType clickType) {
+        return canExecute(ConditionContext.of(player), clickType);
+    }
+    
+    @Override
+    public boolean canExecute(ConditionContext context, ClickType clickType) {
         // Check click type
         if (allowedClickTypes != null && !allowedClickTypes.isEmpty()) {
             if (!allowedClickTypes.contains(clickType)) {
@@ -42,7 +51,7 @@ public class CommandAction implements Action {
         
         // Check permission
         if (permission != null && !permission.isEmpty()) {
-            if (!player.hasPermission(permission)) {
+            if (!context.hasPermission(permission)) {
                 return false;
             }
         }
@@ -58,8 +67,8 @@ public class CommandAction implements Action {
         List<String> blockedCommands = AzureMenusPlugin.getInstance()
             .getConfigManager().get("security.blocked-commands", List.of());
         
-        for (String command : commands) {
-            String processedCommand = replacePlaceholders(player, command);
+        for (PlaceholderTemplate command : commandTemplates) {
+            String processedCommand = command.apply(player);
             
             // Remove leading slash if present
             if (processedCommand.startsWith("/")) {
@@ -74,18 +83,26 @@ public class CommandAction implements Action {
                 continue;
             }
             
-            if (async) {
-                executeAsync(player, processedCommand);
-            } else {
-                executeSync(player, processedCommand);
-            }
+            dispatch(player, processedCommand);
         }
     }
     
     /**
-     * Execute command synchronously
+     * Run the commands, moving async ones out of the click event to the next tick.
+     * Commands may only be dispatched on the main thread, so async never means another thread here.
      */
-    private void executeSync(Player player, String command) {
+    @Override
+    public CompletableFuture<Void> run(Player player, ClickType clickType, ActionExecutor executor) {
+        if (!async) {
+            return Action.super.run(player, clickType, executor);
+        }
+        return executor.nextTick(() -> execute(player, clickType));
+    }
+    
+    /**
+     * Dispatch one command, must be called on the main thread
+     */
+    private void dispatch(Player player, String command) {
         try {
             if (asConsole) {
                 Bukkit.dispatchCommand(Bukkit.getConsoleSender(), command);
@@ -100,38 +117,6 @@ public class CommandAction implements Action {
         }
     }
     
-    /**
-     * Execute command asynchronously
-     */
-    private void executeAsync(Player player, String command) {
-        new BukkitRunnable() {
-            @Override
-            public void run() {
-                executeSync(player, command);
-            }
-        }.runTaskAsynchronously(AzureMenusPlugin.getInstance());
-    }
-    
-    /**
-     * Replace placeholders in the command
-     */
-    private String replacePlaceholders(Player player, String text) {
-        if (text == null || text.isEmpty()) return text;
-        
-        // Replace internal placeholders
-        text = text.replace("%player_name%", player.getName());
-        text = text.replace("%player_displayname%", player.getDisplayName());
-        text = text.replace("%server_online%", String.valueOf(Bukkit.getOnlinePlayers().size()));
-        text = text.replace("%server_max%", String.valueOf(Bukkit.getMaxPlayers()));
-        
-        // Use PlaceholderAPI if available
-        if (Bukkit.getPluginManager().getPlugin("PlaceholderAPI") != null) {
-            text = PlaceholderAPI.setPlaceholders(player, text);
-        }
-        
-        return text;
-    }
-    
     @Override
     public String getType() {
         return asConsole ? "command-console" : "command-player";
@@ -155,6 +140,7 @@ public class CommandAction implements Action {
         return allowedClickTypes;
     }
     
+    @Override
     public String getPermission() {
         return permission;
     }
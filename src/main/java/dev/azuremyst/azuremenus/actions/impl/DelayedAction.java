@@ -0,0 +1,69 @@
+package dev.azuremyst.azuremenus.actions.impl;
+
+import dev.azuremyst.azuremenus.actions.Action;
+import dev.azuremyst.azuremenus.actions.ActionExecutor;
+import dev.azuremyst.azuremenus.menu.condition.ConditionContext;
+import org.bukkit.entity.Player;
+import org.bukkit.event.inventory.ClickType;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Wraps an action configured with a delay, running it the given number of ticks after
+ * the previous action of its chain. Click type and permission checks still happen on click.
+ */
+public class DelayedAction implements Action {
+    
+    private final Action action;
+    private final long delayTicks;
+    
+    public DelayedAction(Action action, long delayTicks) {
+        this.action = action;
+        this.delayTicks = delayTicks;
+    }
+    
+    @Override
+    public boolean canExecute(Player player, ClickType clickType) {
+        return action.canExecute(player, clickType);
+    }
+    
+    @Override
+    public boolean canExecute(ConditionContext context, ClickType clickType) {
+        return action.canExecute(context, clickType);
+    }
+    
+    @Override
+    public void execute(Player player, ClickType clickType) {
+        action.execute(player, clickType);
+    }
+    
+    @Override
+    public CompletableFuture<Void> run(Player player, ClickType clickType, ActionExecutor executor) {
+        return executor.delay(player, delayTicks)
+            .thenCompose(ignored -> action.run(player, clickType, executor));
+    }
+    
+    @Override
+    public String getType() {
+        return action.getType();
+    }
+    
+    @Override
+    public String getPermission() {
+        return action.getPermission();
+    }
+    
+    @Override
+    public boolean isAsync() {
+        return true;
+    }
+    
+    // Getters
+    public Action getAction() {
+        return action;
+    }
+    
+    public long getDelayTicks() {
+        return delayTicks;
+    }
+}
@@ -0,0 +1,87 @@
+package dev.azuremyst.azuremenus.actions.impl;
+
+import dev.azuremyst.azuremenus.AzureMenusPlugin;
+import dev.azuremyst.azuremenus.actions.Action;
+import dev.azuremyst.azuremenus.menu.MenuManager;
+import dev.azuremyst.azuremenus.menu.condition.ConditionContext;
+import dev.azuremyst.azuremenus.menu.session.MenuSession;
+import org.bukkit.entity.Player;
+import org.bukkit.event.inventory.ClickType;
+
+import java.util.Set;
+
+/**
+ * Action that asks for a query in chat and shows the matching content of a paginated menu,
+ * or clears the current search
+ */
+public class SearchAction implements Action {
+    
+    private final boolean clear;
+    private final Set<ClickType> allowedClickTypes;
+    private final String permission;
+    
+    public SearchAction(boolean clear, Set<ClickType> allowedClickTypes, String permission) {
+        this.clear = clear;
+        this.allowedClickTypes = allowedClickTypes;
+        this.permission = permission;
+    }
+    
+    @Override
+    public boolean canExecute(Player player, ClickType clickType) {
+        return canExecute(ConditionContext.of(player), clickType);
+    }
+    
+    @Override
+    public boolean canExecute(ConditionContext context, ClickType clickType) {
+        // Check click type
+        if (allowedClickTypes != null && !allowedClickTypes.isEmpty()) {
+            if (!allowedClickTypes.contains(clickType)) {
+                return false;
+            }
+        }
+        
+        // Check permission
+        if (permission != null && !permission.isEmpty()) {
+            if (!context.hasPermission(permission)) {
+                return false;
+            }
+        }
+        
+        return true;
+    }
+    
+    @Override
+    public void execute(Player player, ClickType clickType) {
+        MenuManager menuManager = AzureMenusPlugin.getInstance().getMenuManager();
+        MenuSession session = menuManager.getSession(player);
+        if (session == null || session.getMenu().getPagination() == null
+                || !session.getMenu().getPagination().isSearchable()) {
+            return;
+        }
+        
+        if (clear) {
+            session.search("");
+        } else {
+            menuManager.getSearchPrompt().prompt(player, session.getMenu());
+        }
+    }
+    
+    @Override
+    public String getType() {
+        return "search";
+    }
+    
+    // Getters
+    public boolean isClear() {
+        return clear;
+    }
+    
+    public Set<ClickType> getAllowedClickTypes() {
+        return allowedClickTypes;
+    }
+    
+    @Override
+    public String getPermission() {
+        return permission;
+    }
+}
@@ -1,11 +1,22 @@
 package dev.azuremyst.azuremenus.commands;
 
 import dev.azuremyst.azuremenus.AzureMenusPlugin;
+import dev.azuremyst.azuremenus.language.LanguageManager;
+import dev.azuremyst.azuremenus.menu.Menu;
+import dev.azuremyst.azuremenus.menu.MenuManager;
+import dev.azuremyst.azuremenus.utils.ColorUtil;
+import org.bukkit.Bukkit;
 import org.bukkit.command.Command;
 import org.bukkit.command.CommandExecutor;
 import org.bukkit.command.CommandSender;
+import org.bukkit.entity.Player;
 import org.jetbrains.annotations.NotNull;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
 /**
  * Main command executor for AzureMenus
  */
@@ -19,7 +30,147 @@ public class AzureMenusCommand implements CommandExecutor {
     
     @Override
     public boolean onCommand(@NotNull CommandSender sender, @NotNull Command command, @NotNull String label, @NotNull String[] args) {
-        // TODO: Implement command logic
+        if (args.length == 0) {
+            sendHelp(sender);
+            return true;
+        }
+        
+        switch (args[0].toLowerCase()) {
+            case "reload" -> handleReload(sender, args);
+            case "open" -> handleOpen(sender, args);
+            case "list" -> handleList(sender);
+            case "help" -> sendHelp(sender);
+            default -> lang().sendPrefixedMessage(sender, "commands.unknown-command");
+        }
         return true;
     }
+    
+    /**
+     * /azuremenus reload [menu]
+     * Without a menu everything is reloaded; with one, only that menu file is
+     */
+    private void handleReload(CommandSender sender, String[] args) {
+        if (!sender.hasPermission("azure.menus.reload")) {
+            lang().sendPrefixedMessage(sender, "commands.no-permission");
+            return;
+        }
+        
+        if (args.length < 2) {
+            plugin.reload().whenComplete((ignored, error) ->
+                lang().sendPrefixedMessage(sender, error == null ? "commands.reload.success" : "commands.reload.error"));
+            return;
+        }
+        
+        String menuName = args[1];
+        MenuManager menuManager = plugin.getMenuManager();
+        Map<String, Object> placeholders = LanguageManager.createPlaceholders("menu", menuName);
+        if (!menuManager.hasMenu(menuName) && !menuManager.hasMenuFile(menuName)) {
+            // Neither loaded nor on disk, there is nothing to reload or unload
+            lang().sendPrefixedMessage(sender, "commands.open.menu-not-found", placeholders);
+            return;
+        }
+        menuManager.reloadMenu(menuName).thenAccept(loaded -> {
+            if (loaded) {
+                lang().sendPrefixedMessage(sender, "commands.reload.menu-success", placeholders);
+            } else if (menuManager.hasMenu(menuName)) {
+                lang().sendPrefixedMessage(sender, "commands.reload.menu-error", placeholders);
+            } else {
+                lang().sendPrefixedMessage(sender, "commands.reload.menu-removed", placeholders);
+            }
+        });
+    }
+    
+    /**
+     * /azuremenus open <menu> [player]
+     */
+    private void handleOpen(CommandSender sender, String[] args) {
+        if (args.length < 2) {
+            sender.sendMessage(ColorUtil.parseComponent("<yellow>" + lang().getMessage("commands.open.usage") + "</yellow>"));
+            return;
+        }
+        
+        String menuName = args[1];
+        if (!canOpen(sender, menuName)) {
+            lang().sendPrefixedMessage(sender, "commands.no-permission");
+            return;
+        }
+        
+        Player target;
+        if (args.length >= 3) {
+            if (!sender.hasPermission("azure.menus.open.others")) {
+                lang().sendPrefixedMessage(sender, "commands.no-permission");
+                return;
+            }
+            target = Bukkit.getPlayerExact(args[2]);
+            if (target == null) {
+                lang().sendPrefixedMessage(sender, "commands.open.player-not-found",
+                    LanguageManager.createPlaceholders("player", args[2]));
+                return;
+            }
+        } else if (sender instanceof Player player) {
+            target = player;
+        } else {
+            lang().sendPrefixedMessage(sender, "commands.player-only");
+            return;
+        }
+        
+        Map<String, Object> placeholders = LanguageManager.createPlaceholders("menu", menuName, "player", target.getName());
+        if (!plugin.getMenuManager().openMenu(target, menuName)) {
+            lang().sendPrefixedMessage(sender, "commands.open.menu-not-found", placeholders);
+        } else if (target != sender) {
+            lang().sendPrefixedMessage(sender, "commands.open.opened-for-player", placeholders);
+        }
+    }
+    
+    /**
+     * Check if a sender may open a menu through the command: any menu, or this one by name
+     */
+    private boolean canOpen(CommandSender sender, String menuName) {
+        return sender.hasPermission("azure.menus.open.*")
+            || sender.hasPermission("azure.menus.open." + menuName.toLowerCase());
+    }
+    
+    /**
+     * /azuremenus list
+     */
+    private void handleList(CommandSender sender) {
+        if (!sender.hasPermission("azure.menus.list")) {
+            lang().sendPrefixedMessage(sender, "commands.no-permission");
+            return;
+        }
+        
+        List<String> names = new ArrayList<>(plugin.getMenuManager().getMenuNames());
+        if (names.isEmpty()) {
+            lang().sendPrefixedMessage(sender, "commands.list.empty");
+            return;
+        }
+        Collections.sort(names);
+        
+        lang().sendMessage(sender, "commands.list.header");
+        for (String name : names) {
+            // Menus that are loaded lazily are listed before their first open, without a size
+            Menu menu = plugin.getMenuManager().getMenu(name);
+            lang().sendMessage(sender, "commands.list.item", LanguageManager.createPlaceholders(
+                "menu", menu != null ? menu.getName() : name, "size", menu != null ? String.valueOf(menu.getSize()) : "?"));
+        }
+    }
+    
+    private void sendHelp(CommandSender sender) {
+        lang().sendMessage(sender, "commands.help.header");
+        sendHelpLine(sender, "commands.reload.usage", "commands.reload.description");
+        sendHelpLine(sender, "commands.open.usage", "commands.open.description");
+        sendHelpLine(sender, "commands.list.usage", "commands.list.description");
+        sendHelpLine(sender, "commands.help.usage", "commands.help.description");
+        lang().sendMessage(sender, "commands.help.footer",
+            LanguageManager.createPlaceholders("version", plugin.getDescription().getVersion()));
+    }
+    
+    private void sendHelpLine(CommandSender sender, String usageKey, String descriptionKey) {
+        sender.sendMessage(ColorUtil.parseComponent("<yellow>" + lang().getMessage(usageKey) + "</yellow> <gray>- "
+            + lang().getMessage(descriptionKey) + "</gray>"));
+    }
+    
+    private LanguageManager lang() {
+        return plugin.getLanguageManager();
+    }
 }
@@ -26,6 +26,16 @@ public class ConfigManager {
     private boolean soundsEnabled;
     private double soundVolume;
     private float soundPitch;
+    private int componentCacheSize;
+    private int cacheCleanupInterval;
+    private boolean virtualThreads;
+    private int workerThreads;
+    private double updateTickBudget;
+    private int permissionSnapshotTtl;
+    private boolean compiledMenuCache;
+    private boolean lazyLoading;
+    private boolean cacheMenus;
+    private int maxCacheSize;
     
     public ConfigManager(AzureMenusPlugin plugin) {
         this.plugin = plugin;
@@ -62,6 +72,16 @@ public class ConfigManager {
         this.soundsEnabled = config.getBoolean("sounds.enabled", true);
         this.soundVolume = config.getDouble("sounds.volume", 1.0);
         this.soundPitch = (float) config.getDouble("sounds.pitch", 1.0);
+        this.componentCacheSize = config.getInt("performance.component-cache-size", 5000);
+        this.cacheCleanupInterval = config.getInt("performance.cache-cleanup-interval", 30);
+        this.virtualThreads = config.getBoolean("performance.virtual-threads", true);
+        this.workerThreads = config.getInt("performance.worker-threads", 4);
+        this.updateTickBudget = config.getDouble("performance.update-tick-budget", 2.0);
+        this.permissionSnapshotTtl = config.getInt("performance.permission-snapshot-ttl", 100);
+        this.compiledMenuCache = config.getBoolean("performance.compiled-menu-cache", true);
+        this.lazyLoading = config.getBoolean("performance.lazy-loading", false);
+        this.cacheMenus = config.getBoolean("performance.cache-menus", true);
+        this.maxCacheSize = config.getInt("performance.max-cache-size", 50);
         
         plugin.getLogger().info("Configuration loaded successfully!");
     }
@@ -131,6 +151,46 @@ public class ConfigManager {
         return soundPitch;
     }
     
+    public int getComponentCacheSize() {
+        return componentCacheSize;
+    }
+    
+    public int getCacheCleanupInterval() {
+        return cacheCleanupInterval;
+    }
+    
+    public boolean isVirtualThreads() {
+        return virtualThreads;
+    }
+    
+    public int getWorkerThreads() {
+        return workerThreads;
+    }
+    
+    public double getUpdateTickBudget() {
+        return updateTickBudget;
+    }
+    
+    public int getPermissionSnapshotTtl() {
+        return permissionSnapshotTtl;
+    }
+    
+    public boolean isCompiledMenuCache() {
+        return compiledMenuCache;
+    }
+    
+    public boolean isLazyLoading() {
+        return lazyLoading;
+    }
+    
+    public boolean isCacheMenus() {
+        return cacheMenus;
+    }
+    
+    public int getMaxCacheSize() {
+        return maxCacheSize;
+    }
+    
     public FileConfiguration getConfig() {
         return config;
     }
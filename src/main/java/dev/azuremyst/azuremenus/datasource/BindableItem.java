@@ -0,0 +1,195 @@
+package dev.azuremyst.azuremenus.datasource;
+
+import dev.azuremyst.azuremenus.AzureMenusPlugin;
+import dev.azuremyst.azuremenus.actions.Action;
+import dev.azuremyst.azuremenus.menu.items.MenuItem;
+import dev.azuremyst.azuremenus.placeholders.PlaceholderTemplate;
+import dev.azuremyst.azuremenus.utils.ColorUtil;
+import org.bukkit.Material;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.UnaryOperator;
+import java.util.regex.Pattern;
+
+/**
+ * The item template of a data source, parsed once when the menu is loaded.
+ * Text that refers to {field}s is kept split, so binding an entry only builds strings;
+ * actions without fields are shared by every entry.
+ *
+ * Values are escaped for where they end up: MiniMessage tags are escaped in names, lore and messages,
+ * they never become placeholders, and in commands each value stays a single plain argument.
+ */
+public final class BindableItem {
+    
+    // Anything but letters, digits, '_', '.' and '-' is dropped from values bound into command arguments
+    private static final Pattern UNSAFE_ARGUMENT = Pattern.compile("[^A-Za-z0-9_.-]");
+    
+    private final MenuItem prototype;
+    private final FieldTemplate material;
+    private final BindableText name;
+    private final List<BindableText> lore;
+    private final BindableText skullOwner;
+    private final FieldTemplate skullTexture;
+    private final List<Object> actions;
+    private final boolean bindable;
+    
+    /**
+     * @param prototype the template parsed as a regular item
+     * @param material configured material
+     * @param actionConfigs configurations the prototype's actions were created from, each with its "type"
+     */
+    public BindableItem(MenuItem prototype, String material, List<Map<String, Object>> actionConfigs) {
+        this.prototype = prototype;
+        this.material = FieldTemplate.compile(material);
+        this.name = BindableText.compile(prototype.getName());
+        this.lore = prototype.getLore().stream().map(BindableText::compile).toList();
+        this.skullOwner = BindableText.compile(prototype.getSkullOwner());
+        this.skullTexture = FieldTemplate.compile(prototype.getSkullTexture());
+        
+        // Actions without fields are created once; the others keep their configuration split for binding
+        List<Object> actions = new ArrayList<>(actionConfigs.size());
+        boolean boundActions = false;
+        for (Map<String, Object> config : actionConfigs) {
+            Object split = split(config);
+            if (split instanceof BoundConfig) {
+                actions.add(split);
+                boundActions = true;
+            } else {
+                Action action = createAction(config);
+                if (action != null) {
+                    actions.add(action);
+                }
+            }
+        }
+        this.actions = actions;
+        
+        boolean bindableLore = lore.stream().anyMatch(BindableText::isBindable);
+        this.bindable = this.material.hasFields() || name.isBindable() || bindableLore
+            || skullOwner.isBindable() || skullTexture.hasFields() || boundActions;
+    }
+    
+    /**
+     * Build the item of one entry
+     */
+    public MenuItem bind(DataEntry entry) {
+        if (!bindable) {
+            return prototype;
+        }
+        
+        Material boundMaterial = material.hasFields()
+            ? Material.matchMaterial(material.bind(entry, UnaryOperator.identity()))
+            : null;
+        
+        List<PlaceholderTemplate> boundLore = new ArrayList<>(lore.size());
+        for (BindableText line : lore) {
+            boundLore.add(line.bind(entry, ColorUtil::escapeTags));
+        }
+        
+        List<Action> boundActions = new ArrayList<>(actions.size());
+        for (Object action : actions) {
+            if (action instanceof BoundConfig config) {
+                Action created = createAction(config.bind(entry));
+                if (created != null) {
+                    boundActions.add(created);
+                }
+            } else {
+                boundActions.add((Action) action);
+            }
+        }
+        
+        return prototype.withContent(boundMaterial,
+            name.bind(entry, ColorUtil::escapeTags),
+            boundLore,
+            skullOwner.bind(entry, UnaryOperator.identity()),
+            skullTexture.bind(entry, UnaryOperator.identity()),
+            boundActions);
+    }
+    
+    private static Action createAction(Map<String, Object> config) {
+        return AzureMenusPlugin.getInstance().getActionRegistry().createAction((String) config.get("type"), config);
+    }
+    
+    /**
+     * Split the strings of an action configuration, returning the value itself if it has no fields
+     */
+    private static Object split(Object value) {
+        if (value instanceof String str) {
+            FieldTemplate template = FieldTemplate.compile(str);
+            return template.hasFields() ? template : str;
+        }
+        if (value instanceof List<?> list) {
+            List<Object> split = new ArrayList<>(list.size());
+            boolean bound = false;
+            for (Object element : list) {
+                Object splitElement = split(element);
+                bound |= splitElement != element;
+                split.add(splitElement);
+            }
+            return bound ? new BoundList(split) : value;
+        }
+        if (value instanceof Map<?, ?> map) {
+            Map<String, Object> split = new LinkedHashMap<>();
+            boolean bound = false;
+            for (Map.Entry<?, ?> element : map.entrySet()) {
+                Object splitElement = split(element.getValue());
+                bound |= splitElement != element.getValue();
+                split.put(String.valueOf(element.getKey()), splitElement);
+            }
+            return bound ? new BoundConfig(split) : value;
+        }
+        return value;
+    }
+    
+    private static Object bind(Object value, DataEntry entry, UnaryOperator<String> escape) {
+        if (value instanceof FieldTemplate template) {
+            return template.bind(entry, escape);
+        }
+        if (value instanceof BoundList list) {
+            List<Object> bound = new ArrayList<>(list.elements().size());
+            for (Object element : list.elements()) {
+                bound.add(bind(element, entry, escape));
+            }
+            return bound;
+        }
+        if (value instanceof BoundConfig config) {
+            return config.bind(entry);
+        }
+        return value;
+    }
+    
+    /**
+     * Escape a value for an action: it may not form a placeholder, and outside messages it stays one
+     * plain argument of letters, digits, '_', '.' and '-', so it can never become a target selector like @a
+     */
+    private static UnaryOperator<String> actionEscape(Object type) {
+        if ("message".equals(type)) {
+            return value -> ColorUtil.escapeTags(value.replace("%", ""));
+        }
+        return value -> UNSAFE_ARGUMENT.matcher(value.replaceAll("\\s+", "_")).replaceAll("");
+    }
+    
+    /**
+     * An action configuration, or a map nested in one, with some of its strings referring to fields
+     */
+    private record BoundConfig(Map<String, Object> values) {
+        
+        Map<String, Object> bind(DataEntry entry) {
+            Object type = values.get("type");
+            UnaryOperator<String> escape = actionEscape(type instanceof FieldTemplate template ? template.getSource() : type);
+            Map<String, Object> bound = new LinkedHashMap<>();
+            for (Map.Entry<String, Object> value : values.entrySet()) {
+                bound.put(value.getKey(), BindableItem.bind(value.getValue(), entry, escape));
+            }
+            return bound;
+        }
+    }
+    
+    /**
+     * A list in an action configuration with some elements referring to fields
+     */
+    private record BoundList(List<Object> elements) {
+    }
+}
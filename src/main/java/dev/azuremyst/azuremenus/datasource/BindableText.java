@@ -0,0 +1,79 @@
+package dev.azuremyst.azuremenus.datasource;
+
+import dev.azuremyst.azuremenus.placeholders.PlaceholderTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.UnaryOperator;
+
+/**
+ * A placeholder template whose literal text and placeholder identifiers may refer to entry fields.
+ * Fields are bound into the already split template, so a value can never become a placeholder:
+ * in literal text it is escaped as given, in an identifier it may not contain '%' or whitespace.
+ */
+public final class BindableText {
+    
+    private final PlaceholderTemplate template;
+    private final FieldTemplate[] segments;
+    private final boolean bindable;
+    
+    private BindableText(PlaceholderTemplate template, FieldTemplate[] segments, boolean bindable) {
+        this.template = template;
+        this.segments = segments;
+        this.bindable = bindable;
+    }
+    
+    /**
+     * Compile a configured string into a placeholder template with its {field} references split out
+     */
+    public static BindableText compile(String text) {
+        PlaceholderTemplate template = PlaceholderTemplate.compile(text);
+        FieldTemplate[] segments = new FieldTemplate[template.size()];
+        boolean bindable = false;
+        for (int i = 0; i < segments.length; i++) {
+            segments[i] = FieldTemplate.compile(template.getSegment(i));
+            bindable |= segments[i].hasFields();
+        }
+        return new BindableText(template, segments, bindable);
+    }
+    
+    /**
+     * Bind an entry, escaping values placed in literal text
+     */
+    public PlaceholderTemplate bind(DataEntry entry, UnaryOperator<String> escape) {
+        if (!bindable) {
+            return template;
+        }
+        
+        List<String> bound = new ArrayList<>(segments.length);
+        List<Boolean> placeholders = new ArrayList<>(segments.length);
+        for (int i = 0; i < segments.length; i++) {
+            boolean placeholder = template.isPlaceholder(i);
+            bound.add(segments[i].bind(entry, placeholder ? BindableText::toIdentifier : escape));
+            placeholders.add(placeholder);
+        }
+        return PlaceholderTemplate.of(bound, placeholders);
+    }
+    
+    public boolean isBindable() {
+        return bindable;
+    }
+    
+    public PlaceholderTemplate getTemplate() {
+        return template;
+    }
+    
+    /**
+     * Keep a value inside the placeholder it is bound into
+     */
+    private static String toIdentifier(String value) {
+        StringBuilder identifier = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c != '%' && !Character.isWhitespace(c)) {
+                identifier.append(c);
+            }
+        }
+        return identifier.toString();
+    }
+}
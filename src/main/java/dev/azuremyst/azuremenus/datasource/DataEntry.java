@@ -0,0 +1,20 @@
+package dev.azuremyst.azuremenus.datasource;
+
+import java.util.Map;
+
+/**
+ * One entry of a data source: named text fields that item templates refer to as {field}
+ */
+public record DataEntry(Map<String, String> fields) {
+    
+    public DataEntry {
+        fields = Map.copyOf(fields);
+    }
+    
+    /**
+     * Get a field value, or null if the entry has no such field
+     */
+    public String get(String field) {
+        return fields.get(field);
+    }
+}
@@ -0,0 +1,24 @@
+package dev.azuremyst.azuremenus.datasource;
+
+import java.util.List;
+
+/**
+ * One page of entries fetched from a data source
+ *
+ * @param entries entries of the page, in display order
+ * @param totalHint total number of entries in the source, or -1 if the source cannot tell cheaply
+ * @param hasMore whether entries follow this page
+ */
+public record DataPage(List<DataEntry> entries, int totalHint, boolean hasMore) {
+    
+    public DataPage {
+        entries = List.copyOf(entries);
+    }
+    
+    /**
+     * Create a page of a source that knows its total size
+     */
+    public static DataPage of(List<DataEntry> entries, int offset, int total) {
+        return new DataPage(entries, total, offset + entries.size() < total);
+    }
+}
@@ -0,0 +1,109 @@
+package dev.azuremyst.azuremenus.datasource;
+
+import dev.azuremyst.azuremenus.AzureMenusPlugin;
+import dev.azuremyst.azuremenus.datasource.impl.*;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Registry for menu data sources
+ */
+public class DataSourceRegistry {
+    
+    private final AzureMenusPlugin plugin;
+    private final Map<String, DataSourceFactory> sourceFactories;
+    
+    public DataSourceRegistry(AzureMenusPlugin plugin) {
+        this.plugin = plugin;
+        this.sourceFactories = new HashMap<>();
+        
+        registerDefaultSources();
+    }
+    
+    /**
+     * Register default source types
+     */
+    private void registerDefaultSources() {
+        // Live server state
+        register("online-players", config -> new OnlinePlayersDataSource());
+        register("worlds", config -> new WorldsDataSource());
+        register("leaderboard", config -> {
+            String board = (String) config.get("board");
+            if (board == null || board.isBlank()) {
+                throw new IllegalArgumentException("missing board");
+            }
+            return new LeaderboardDataSource(plugin.getLeaderboardManager(), board);
+        });
+        
+        // Files in the plugin folder
+        register("yaml", config -> new YamlDataSource(resolveFile(config.get("file")), (String) config.get("path")));
+        register("sqlite", config -> {
+            String query = (String) config.get("query");
+            if (query == null || query.isBlank()) {
+                throw new IllegalArgumentException("missing query");
+            }
+            return new SqliteDataSource(resolveFile(config.get("file")), query);
+        });
+    }
+    
+    /**
+     * Register a source factory
+     */
+    public void register(String type, DataSourceFactory factory) {
+        sourceFactories.put(type.toLowerCase(), factory);
+    }
+    
+    /**
+     * Create a source from configuration
+     */
+    public MenuDataSource createSource(String type, Map<String, Object> config) {
+        DataSourceFactory factory = sourceFactories.get(type.toLowerCase());
+        if (factory == null) {
+            plugin.getLogger().warning("Unknown data source type: " + type);
+            return null;
+        }
+        
+        try {
+            return factory.create(config);
+        } catch (Exception e) {
+            plugin.getLogger().warning("Failed to create data source of type " + type + ": " + e.getMessage());
+            return null;
+        }
+    }
+    
+    /**
+     * Resolve a file path against the plugin folder, refusing paths that lead outside of it
+     */
+    private File resolveFile(Object value) {
+        if (value == null) {
+            throw new IllegalArgumentException("missing file");
+        }
+        
+        Path folder = plugin.getDataFolder().toPath().toAbsolutePath().normalize();
+        Path path = folder.resolve(value.toString()).normalize();
+        if (!path.startsWith(folder)) {
+            throw new IllegalArgumentException("file must be inside the plugin folder: " + value);
+        }
+        return path.toFile();
+    }
+    
+    /**
+     * Get all registered source types
+     */
+    public Set<String> getRegisteredTypes() {
+        return Collections.unmodifiableSet(sourceFactories.keySet());
+    }
+    
+    /**
+     * Functional interface for source factories
+     */
+    @FunctionalInterface
+    public interface DataSourceFactory {
+        MenuDataSource create(Map<String, Object> config) throws Exception;
+    }
+}
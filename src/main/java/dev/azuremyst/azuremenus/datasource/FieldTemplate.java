@@ -0,0 +1,104 @@
+package dev.azuremyst.azuremenus.datasource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.UnaryOperator;
+
+/**
+ * A configured string split once into literal text and {field} references to entry fields.
+ * Binding an entry is one pass over the parts, with every field value passed through an escape first.
+ */
+public final class FieldTemplate {
+    
+    private final String source;
+    private final String[] parts;
+    private final boolean[] fields;
+    
+    private FieldTemplate(String source, String[] parts, boolean[] fields) {
+        this.source = source;
+        this.parts = parts;
+        this.fields = fields;
+    }
+    
+    /**
+     * Compile a string into a field template. A reference is {name} with a non-empty name.
+     */
+    public static FieldTemplate compile(String text) {
+        if (text == null || text.indexOf('{') < 0) {
+            return new FieldTemplate(text, new String[0], new boolean[0]);
+        }
+        
+        List<String> parts = new ArrayList<>();
+        List<Boolean> fields = new ArrayList<>();
+        int literalStart = 0;
+        int open = text.indexOf('{');
+        while (open >= 0) {
+            int close = text.indexOf('}', open + 1);
+            if (close < 0) {
+                break;
+            }
+            
+            // The innermost '{' before the '}' starts the reference
+            int nested = text.lastIndexOf('{', close);
+            if (nested + 1 < close) {
+                if (nested > literalStart) {
+                    parts.add(text.substring(literalStart, nested));
+                    fields.add(false);
+                }
+                parts.add(text.substring(nested + 1, close));
+                fields.add(true);
+                literalStart = close + 1;
+            }
+            open = text.indexOf('{', close + 1);
+        }
+        
+        if (parts.isEmpty()) {
+            return new FieldTemplate(text, new String[0], new boolean[0]);
+        }
+        if (literalStart < text.length()) {
+            parts.add(text.substring(literalStart));
+            fields.add(false);
+        }
+        
+        boolean[] flags = new boolean[fields.size()];
+        for (int i = 0; i < flags.length; i++) {
+            flags[i] = fields.get(i);
+        }
+        return new FieldTemplate(text, parts.toArray(new String[0]), flags);
+    }
+    
+    /**
+     * Check if this template refers to any field
+     */
+    public boolean hasFields() {
+        return parts.length > 0;
+    }
+    
+    /**
+     * Replace every {field} with the escaped value of that field; unknown fields are left as they are
+     */
+    public String bind(DataEntry entry, UnaryOperator<String> escape) {
+        if (!hasFields()) {
+            return source;
+        }
+        
+        StringBuilder result = new StringBuilder(source.length() + 16);
+        for (int i = 0; i < parts.length; i++) {
+            if (!fields[i]) {
+                result.append(parts[i]);
+                continue;
+            }
+            String value = entry.get(parts[i]);
+            if (value != null) {
+                result.append(escape.apply(value));
+            } else {
+                result.append('{').append(parts[i]).append('}');
+            }
+        }
+        return result.toString();
+    }
+    
+    public String getSource() {
+        return source;
+    }
+}
@@ -0,0 +1,29 @@
+package dev.azuremyst.azuremenus.datasource;
+
+import dev.azuremyst.azuremenus.actions.ExecutionMode;
+import org.bukkit.entity.Player;
+
+/**
+ * Source of entries for the content of a paginated menu.
+ * Sources are asked for one page at a time, so only the entries a viewer can see are produced.
+ */
+public interface MenuDataSource {
+    
+    /**
+     * Fetch at most limit entries starting at offset, on the thread given by {@link #getExecutionMode()}
+     */
+    DataPage fetch(Player viewer, int offset, int limit) throws Exception;
+    
+    /**
+     * Get the thread fetches run on. Sources reading the Bukkit API stay on the main thread,
+     * sources doing blocking I/O move to a worker or virtual thread.
+     */
+    default ExecutionMode getExecutionMode() {
+        return ExecutionMode.MAIN;
+    }
+    
+    /**
+     * Get the source type identifier
+     */
+    String getType();
+}
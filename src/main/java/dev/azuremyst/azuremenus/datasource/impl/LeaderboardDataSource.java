@@ -0,0 +1,57 @@
+package dev.azuremyst.azuremenus.datasource.impl;
+
+import dev.azuremyst.azuremenus.datasource.DataEntry;
+import dev.azuremyst.azuremenus.datasource.DataPage;
+import dev.azuremyst.azuremenus.datasource.MenuDataSource;
+import dev.azuremyst.azuremenus.leaderboard.Leaderboard;
+import dev.azuremyst.azuremenus.leaderboard.LeaderboardManager;
+import dev.azuremyst.azuremenus.leaderboard.RankEntry;
+import org.bukkit.entity.Player;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Entries of a leaderboard from the highest score down, read straight from its ranking.
+ * Fields: rank, name, uuid, score, and the viewer's own viewer-rank and viewer-score
+ */
+public class LeaderboardDataSource implements MenuDataSource {
+    
+    private final LeaderboardManager leaderboards;
+    private final String board;
+    
+    public LeaderboardDataSource(LeaderboardManager leaderboards, String board) {
+        this.leaderboards = leaderboards;
+        this.board = board;
+    }
+    
+    @Override
+    public DataPage fetch(Player viewer, int offset, int limit) {
+        Leaderboard leaderboard = leaderboards.getLeaderboard(board);
+        if (leaderboard == null) {
+            throw new IllegalStateException("Unknown leaderboard: " + board);
+        }
+        
+        RankEntry own = leaderboard.getEntry(viewer.getUniqueId());
+        String viewerRank = own != null ? String.valueOf(own.rank()) : "-";
+        String viewerScore = own != null ? Leaderboard.formatScore(own.score()) : "0";
+        
+        List<DataEntry> entries = new ArrayList<>(limit);
+        for (RankEntry entry : leaderboard.getRange(offset, limit)) {
+            entries.add(new DataEntry(Map.of(
+                "rank", String.valueOf(entry.rank()),
+                "name", entry.name(),
+                "uuid", entry.id().toString(),
+                "score", Leaderboard.formatScore(entry.score()),
+                "viewer-rank", viewerRank,
+                "viewer-score", viewerScore)));
+        }
+        return DataPage.of(entries, offset, leaderboard.size());
+    }
+    
+    @Override
+    public String getType() {
+        return "leaderboard";
+    }
+}
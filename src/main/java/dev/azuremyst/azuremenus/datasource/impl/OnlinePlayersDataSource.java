@@ -0,0 +1,45 @@
+package dev.azuremyst.azuremenus.datasource.impl;
+
+import dev.azuremyst.azuremenus.datasource.DataEntry;
+import dev.azuremyst.azuremenus.datasource.DataPage;
+import dev.azuremyst.azuremenus.datasource.MenuDataSource;
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Players online and visible to the viewer.
+ * Fields: name, uuid, world, level
+ */
+public class OnlinePlayersDataSource implements MenuDataSource {
+    
+    @Override
+    public DataPage fetch(Player viewer, int offset, int limit) {
+        List<DataEntry> entries = new ArrayList<>(limit);
+        int visible = 0;
+        
+        // Only the players on the requested page become entries, the rest are just counted
+        for (Player player : Bukkit.getOnlinePlayers()) {
+            if (!viewer.canSee(player)) {
+                continue;
+            }
+            if (visible >= offset && entries.size() < limit) {
+                entries.add(new DataEntry(Map.of(
+                    "name", player.getName(),
+                    "uuid", player.getUniqueId().toString(),
+                    "world", player.getWorld().getName(),
+                    "level", String.valueOf(player.getLevel()))));
+            }
+            visible++;
+        }
+        return DataPage.of(entries, offset, visible);
+    }
+    
+    @Override
+    public String getType() {
+        return "online-players";
+    }
+}
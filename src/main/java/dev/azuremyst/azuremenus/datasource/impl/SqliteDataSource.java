@@ -0,0 +1,85 @@
+package dev.azuremyst.azuremenus.datasource.impl;
+
+import dev.azuremyst.azuremenus.actions.ExecutionMode;
+import dev.azuremyst.azuremenus.datasource.DataEntry;
+import dev.azuremyst.azuremenus.datasource.DataPage;
+import dev.azuremyst.azuremenus.datasource.MenuDataSource;
+import org.bukkit.entity.Player;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Rows of a query against an SQLite database in the plugin folder.
+ * Fields are the column labels of the query, in lower case.
+ * Only the rows of the requested page are read; queries run on a virtual thread
+ * using the SQLite driver bundled with the server.
+ */
+public class SqliteDataSource implements MenuDataSource {
+    
+    private final File file;
+    private final String query;
+    
+    public SqliteDataSource(File file, String query) {
+        this.file = file;
+        this.query = query.trim().replaceAll(";+$", "");
+    }
+    
+    @Override
+    public DataPage fetch(Player viewer, int offset, int limit) throws Exception {
+        if (!file.isFile()) {
+            throw new FileNotFoundException("Database not found: " + file.getName());
+        }
+        
+        try (Connection connection = DriverManager.getConnection("jdbc:sqlite:" + file.getPath())) {
+            int total = count(connection);
+            
+            List<DataEntry> entries = new ArrayList<>(limit);
+            try (PreparedStatement statement = connection.prepareStatement(
+                    "SELECT * FROM (" + query + ") LIMIT ? OFFSET ?")) {
+                statement.setInt(1, limit);
+                statement.setInt(2, offset);
+                
+                try (ResultSet result = statement.executeQuery()) {
+                    ResultSetMetaData meta = result.getMetaData();
+                    while (result.next()) {
+                        Map<String, String> fields = new HashMap<>();
+                        for (int column = 1; column <= meta.getColumnCount(); column++) {
+                            String value = result.getString(column);
+                            fields.put(meta.getColumnLabel(column).toLowerCase(), value != null ? value : "");
+                        }
+                        entries.add(new DataEntry(fields));
+                    }
+                }
+            }
+            return DataPage.of(entries, offset, total);
+        }
+    }
+    
+    private int count(Connection connection) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement("SELECT COUNT(*) FROM (" + query + ")");
+             ResultSet result = statement.executeQuery()) {
+            return result.next() ? result.getInt(1) : 0;
+        }
+    }
+    
+    @Override
+    public ExecutionMode getExecutionMode() {
+        return ExecutionMode.VIRTUAL;
+    }
+    
+    @Override
+    public String getType() {
+        return "sqlite";
+    }
+}
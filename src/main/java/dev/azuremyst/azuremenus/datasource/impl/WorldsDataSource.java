@@ -0,0 +1,39 @@
+package dev.azuremyst.azuremenus.datasource.impl;
+
+import dev.azuremyst.azuremenus.datasource.DataEntry;
+import dev.azuremyst.azuremenus.datasource.DataPage;
+import dev.azuremyst.azuremenus.datasource.MenuDataSource;
+import org.bukkit.Bukkit;
+import org.bukkit.World;
+import org.bukkit.entity.Player;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Loaded worlds.
+ * Fields: name, uuid, environment, players
+ */
+public class WorldsDataSource implements MenuDataSource {
+    
+    @Override
+    public DataPage fetch(Player viewer, int offset, int limit) {
+        List<World> worlds = Bukkit.getWorlds();
+        List<DataEntry> entries = new ArrayList<>(limit);
+        for (int i = offset; i < worlds.size() && entries.size() < limit; i++) {
+            World world = worlds.get(i);
+            entries.add(new DataEntry(Map.of(
+                "name", world.getName(),
+                "uuid", world.getUID().toString(),
+                "environment", world.getEnvironment().name(),
+                "players", String.valueOf(world.getPlayers().size()))));
+        }
+        return DataPage.of(entries, offset, worlds.size());
+    }
+    
+    @Override
+    public String getType() {
+        return "worlds";
+    }
+}
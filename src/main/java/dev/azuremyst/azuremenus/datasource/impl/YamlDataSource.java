@@ -0,0 +1,96 @@
+package dev.azuremyst.azuremenus.datasource.impl;
+
+import dev.azuremyst.azuremenus.actions.ExecutionMode;
+import dev.azuremyst.azuremenus.datasource.DataEntry;
+import dev.azuremyst.azuremenus.datasource.DataPage;
+import dev.azuremyst.azuremenus.datasource.MenuDataSource;
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.bukkit.entity.Player;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Entries of a YAML file in the plugin folder, one per key under the configured path.
+ * Fields: key, plus every value of the entry's section (or value for plain entries).
+ * The file is read on a worker thread and read again only after it changes.
+ */
+public class YamlDataSource implements MenuDataSource {
+    
+    private final File file;
+    private final String path;
+    
+    private volatile Snapshot snapshot;
+    
+    public YamlDataSource(File file, String path) {
+        this.file = file;
+        this.path = path;
+    }
+    
+    @Override
+    public DataPage fetch(Player viewer, int offset, int limit) throws Exception {
+        List<DataEntry> entries = load();
+        int from = Math.min(offset, entries.size());
+        int to = Math.min(entries.size(), from + limit);
+        return DataPage.of(entries.subList(from, to), offset, entries.size());
+    }
+    
+    /**
+     * Get all entries, reading the file again if it changed since the last read
+     */
+    private List<DataEntry> load() throws FileNotFoundException {
+        if (!file.isFile()) {
+            throw new FileNotFoundException("Data file not found: " + file.getName());
+        }
+        
+        long lastModified = file.lastModified();
+        Snapshot current = snapshot;
+        if (current != null && current.lastModified() == lastModified) {
+            return current.entries();
+        }
+        
+        YamlConfiguration config = YamlConfiguration.loadConfiguration(file);
+        ConfigurationSection section = path == null || path.isEmpty() ? config : config.getConfigurationSection(path);
+        
+        List<DataEntry> entries = new ArrayList<>();
+        if (section != null) {
+            for (String key : section.getKeys(false)) {
+                Map<String, String> fields = new HashMap<>();
+                fields.put("key", key);
+                
+                ConfigurationSection entrySection = section.getConfigurationSection(key);
+                if (entrySection != null) {
+                    for (Map.Entry<String, Object> value : entrySection.getValues(false).entrySet()) {
+                        if (value.getValue() != null && !(value.getValue() instanceof ConfigurationSection)) {
+                            fields.put(value.getKey(), String.valueOf(value.getValue()));
+                        }
+                    }
+                } else if (section.get(key) != null) {
+                    fields.put("value", String.valueOf(section.get(key)));
+                }
+                entries.add(new DataEntry(fields));
+            }
+        }
+        
+        snapshot = new Snapshot(lastModified, List.copyOf(entries));
+        return snapshot.entries();
+    }
+    
+    @Override
+    public ExecutionMode getExecutionMode() {
+        return ExecutionMode.WORKER;
+    }
+    
+    @Override
+    public String getType() {
+        return "yaml";
+    }
+    
+    private record Snapshot(long lastModified, List<DataEntry> entries) {
+    }
+}
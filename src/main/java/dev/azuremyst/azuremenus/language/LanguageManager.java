@@ -3,9 +3,9 @@ package dev.azuremyst.azuremenus.language;
 import dev.azuremyst.azuremenus.AzureMenusPlugin;
 import dev.azuremyst.azuremenus.utils.ColorUtil;
 import net.kyori.adventure.text.Component;
+import org.bukkit.command.CommandSender;
 import org.bukkit.configuration.file.FileConfiguration;
 import org.bukkit.configuration.file.YamlConfiguration;
-import org.bukkit.entity.Player;
 
 import java.io.File;
 import java.io.InputStream;
@@ -157,34 +157,34 @@ public class LanguageManager {
     }
     
     /**
-     * Send message to player
+     * Send message to a player or the console
      */
-    public void sendMessage(Player player, String key) {
-        sendMessage(player, key, new HashMap<>());
+    public void sendMessage(CommandSender sender, String key) {
+        sendMessage(sender, key, new HashMap<>());
     }
     
     /**
-     * Send message to player with placeholders
+     * Send message to a player or the console with placeholders
      */
-    public void sendMessage(Player player, String key, Map<String, Object> placeholders) {
+    public void sendMessage(CommandSender sender, String key, Map<String, Object> placeholders) {
         Component message = getMessageComponent(key, placeholders);
-        player.sendMessage(message);
+        sender.sendMessage(message);
     }
     
     /**
-     * Send prefixed message to player
+     * Send prefixed message to a player or the console
      */
-    public void sendPrefixedMessage(Player player, String key) {
-        sendPrefixedMessage(player, key, new HashMap<>());
+    public void sendPrefixedMessage(CommandSender sender, String key) {
+        sendPrefixedMessage(sender, key, new HashMap<>());
     }
     
     /**
-     * Send prefixed message to player with placeholders
+     * Send prefixed message to a player or the console with placeholders
      */
-    public void sendPrefixedMessage(Player player, String key, Map<String, Object> placeholders) {
+    public void sendPrefixedMessage(CommandSender sender, String key, Map<String, Object> placeholders) {
         Component prefix = getMessageComponent("prefix");
         Component message = getMessageComponent(key, placeholders);
-        player.sendMessage(prefix.append(Component.text(" ")).append(message));
+        sender.sendMessage(prefix.append(Component.text(" ")).append(message));
     }
     
     /**
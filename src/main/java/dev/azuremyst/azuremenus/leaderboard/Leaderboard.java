@@ -0,0 +1,202 @@
+package dev.azuremyst.azuremenus.leaderboard;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * A named ranking of player scores, safe to update and read from any thread.
+ * Scores are kept ordered as they change, so reading the top entries or a player's rank never sorts.
+ */
+public class Leaderboard {
+    
+    // "AZLB"
+    private static final int SNAPSHOT_MAGIC = 0x415A4C42;
+    private static final int SNAPSHOT_VERSION = 1;
+    
+    private final String name;
+    private final RankIndex index;
+    private final Object saveLock;
+    private volatile boolean dirty;
+    // Players changed before the snapshot was loaded, which the snapshot must not overwrite or bring back
+    private Set<UUID> changedBeforeLoad;
+    
+    public Leaderboard(String name) {
+        this.name = name;
+        this.index = new RankIndex();
+        this.saveLock = new Object();
+        this.changedBeforeLoad = new HashSet<>();
+    }
+    
+    /**
+     * Set a player's score. Scores that are not finite numbers are ignored.
+     */
+    public synchronized void update(UUID playerId, String playerName, double score) {
+        if (!Double.isFinite(score)) {
+            return;
+        }
+        index.put(playerId, playerName, score);
+        dirty = true;
+        if (changedBeforeLoad != null) {
+            changedBeforeLoad.add(playerId);
+        }
+    }
+    
+    /**
+     * Remove a player from the ranking
+     */
+    public synchronized void remove(UUID playerId) {
+        if (index.remove(playerId)) {
+            dirty = true;
+        }
+        if (changedBeforeLoad != null) {
+            changedBeforeLoad.add(playerId);
+        }
+    }
+    
+    /**
+     * Get a player's rank counted from 1, or 0 if the player has no score
+     */
+    public synchronized int getRank(UUID playerId) {
+        return index.rank(playerId);
+    }
+    
+    /**
+     * Get a player's entry, or null if the player has no score
+     */
+    public synchronized RankEntry getEntry(UUID playerId) {
+        return index.get(playerId);
+    }
+    
+    /**
+     * Get the n highest ranked entries
+     */
+    public synchronized List<RankEntry> getTop(int n) {
+        return index.range(0, n);
+    }
+    
+    /**
+     * Get at most limit entries, starting after offset higher ranked ones
+     */
+    public synchronized List<RankEntry> getRange(int offset, int limit) {
+        return index.range(offset, limit);
+    }
+    
+    public synchronized int size() {
+        return index.size();
+    }
+    
+    public String getName() {
+        return name;
+    }
+    
+    /**
+     * Check if scores changed since the last snapshot
+     */
+    public boolean isDirty() {
+        return dirty;
+    }
+    
+    /**
+     * Write every entry to a snapshot file, replacing the previous snapshot once complete.
+     * Saves of the same leaderboard run one at a time.
+     */
+    public void save(File file) throws IOException {
+        synchronized (saveLock) {
+            writeSnapshot(file);
+        }
+    }
+    
+    private void writeSnapshot(File file) throws IOException {
+        List<RankEntry> entries;
+        synchronized (this) {
+            entries = index.entries();
+            dirty = false;
+        }
+        
+        File temp = new File(file.getParentFile(), file.getName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp.toPath())))) {
+            out.writeInt(SNAPSHOT_MAGIC);
+            out.writeInt(SNAPSHOT_VERSION);
+            out.writeInt(entries.size());
+            for (RankEntry entry : entries) {
+                out.writeLong(entry.id().getMostSignificantBits());
+                out.writeLong(entry.id().getLeastSignificantBits());
+                out.writeDouble(entry.score());
+                out.writeUTF(entry.name() != null ? entry.name() : "");
+            }
+        } catch (IOException e) {
+            dirty = true;
+            throw e;
+        }
+        Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+    }
+    
+    /**
+     * Read the entries of a snapshot file, if there is one. Players whose score was set or removed
+     * since this leaderboard was created keep that state; later loads restore nothing.
+     *
+     * @return number of entries restored
+     */
+    public int load(File file) throws IOException {
+        try {
+            return file.isFile() ? restore(readSnapshot(file)) : 0;
+        } finally {
+            synchronized (this) {
+                changedBeforeLoad = null;
+            }
+        }
+    }
+    
+    private List<RankEntry> readSnapshot(File file) throws IOException {
+        List<RankEntry> entries = new ArrayList<>();
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file.toPath())))) {
+            if (in.readInt() != SNAPSHOT_MAGIC || in.readInt() != SNAPSHOT_VERSION) {
+                throw new IOException("Unsupported leaderboard snapshot: " + file.getName());
+            }
+            
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                UUID id = new UUID(in.readLong(), in.readLong());
+                double score = in.readDouble();
+                entries.add(new RankEntry(0, id, in.readUTF(), score));
+            }
+        }
+        return entries;
+    }
+    
+    private synchronized int restore(List<RankEntry> entries) {
+        if (changedBeforeLoad == null) {
+            return 0;
+        }
+        int restored = 0;
+        for (RankEntry entry : entries) {
+            if (!changedBeforeLoad.contains(entry.id())) {
+                index.put(entry.id(), entry.name(), entry.score());
+                restored++;
+            }
+        }
+        return restored;
+    }
+    
+    /**
+     * Format a score for display, without decimals for whole numbers
+     */
+    public static String formatScore(double score) {
+        if (score == Math.rint(score) && Math.abs(score) < 1e15) {
+            return String.valueOf((long) score);
+        }
+        return String.format(Locale.ROOT, "%.2f", score);
+    }
+}
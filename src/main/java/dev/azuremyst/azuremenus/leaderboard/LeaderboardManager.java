@@ -0,0 +1,233 @@
+package dev.azuremyst.azuremenus.leaderboard;
+
+import dev.azuremyst.azuremenus.AzureMenusPlugin;
+import dev.azuremyst.azuremenus.placeholders.PlaceholderTemplate;
+import org.bukkit.Bukkit;
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.entity.Player;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Keeps the configured leaderboards, feeds them from placeholders of online players,
+ * and stores each one as a snapshot file in the leaderboards folder.
+ */
+public class LeaderboardManager {
+    
+    private final AzureMenusPlugin plugin;
+    private final File directory;
+    private final Map<String, Leaderboard> leaderboards;
+    private final List<BukkitTask> tasks;
+    // Snapshot reads and writes, run on the worker pool one after another
+    private CompletableFuture<Void> fileQueue;
+    
+    public LeaderboardManager(AzureMenusPlugin plugin) {
+        this.plugin = plugin;
+        this.directory = new File(plugin.getDataFolder(), "leaderboards");
+        this.leaderboards = new ConcurrentHashMap<>();
+        this.tasks = new ArrayList<>();
+        this.fileQueue = CompletableFuture.completedFuture(null);
+    }
+    
+    /**
+     * Apply the leaderboard configuration.
+     * Boards that already exist keep their scores; new boards are restored from their snapshot in the background.
+     */
+    public void load() {
+        tasks.forEach(BukkitTask::cancel);
+        tasks.clear();
+        
+        ConfigurationSection boards = plugin.getConfigManager().getConfig().getConfigurationSection("leaderboards.boards");
+        Set<String> configured = new HashSet<>();
+        if (boards != null) {
+            for (String name : boards.getKeys(false)) {
+                configured.add(name.toLowerCase());
+            }
+        }
+        
+        // Boards removed from the configuration are saved one last time and dropped
+        for (Leaderboard board : new ArrayList<>(leaderboards.values())) {
+            if (!configured.contains(board.getName())) {
+                leaderboards.remove(board.getName());
+                plugin.getPlaceholderService().unregisterPlaceholder("leaderboard_" + board.getName() + "_rank");
+                plugin.getPlaceholderService().unregisterPlaceholder("leaderboard_" + board.getName() + "_score");
+                queueFileTask(() -> save(board));
+            }
+        }
+        
+        if (boards != null) {
+            for (String name : boards.getKeys(false)) {
+                ConfigurationSection section = boards.getConfigurationSection(name);
+                if (section != null) {
+                    setUp(name.toLowerCase(), section);
+                }
+            }
+        }
+        
+        int autosaveSeconds = plugin.getConfigManager().get("leaderboards.autosave-interval", 300);
+        if (autosaveSeconds > 0 && !leaderboards.isEmpty()) {
+            long period = autosaveSeconds * 20L;
+            tasks.add(Bukkit.getScheduler().runTaskTimer(plugin, () -> queueFileTask(this::saveAll), period, period));
+        }
+    }
+    
+    private void setUp(String name, ConfigurationSection section) {
+        Leaderboard board = leaderboards.get(name);
+        if (board == null) {
+            board = new Leaderboard(name);
+            leaderboards.put(name, board);
+            Leaderboard created = board;
+            queueFileTask(() -> restore(created));
+        }
+        
+        // Rank and score of the viewer, as %leaderboard_<name>_rank% and %leaderboard_<name>_score%
+        plugin.getPlaceholderService().registerPlaceholder("leaderboard_" + name + "_rank", player -> {
+            Leaderboard current = leaderboards.get(name);
+            int rank = current != null ? current.getRank(player.getUniqueId()) : 0;
+            return rank > 0 ? String.valueOf(rank) : "-";
+        });
+        plugin.getPlaceholderService().registerPlaceholder("leaderboard_" + name + "_score", player -> {
+            Leaderboard current = leaderboards.get(name);
+            RankEntry entry = current != null ? current.getEntry(player.getUniqueId()) : null;
+            return entry != null ? Leaderboard.formatScore(entry.score()) : "0";
+        });
+        
+        // Scores read from a placeholder of every online player
+        String placeholder = section.getString("placeholder", "");
+        int pollSeconds = section.getInt("poll-interval", 60);
+        if (!placeholder.isEmpty() && pollSeconds > 0) {
+            PlaceholderTemplate template = PlaceholderTemplate.compile(placeholder);
+            Leaderboard polled = board;
+            long period = pollSeconds * 20L;
+            tasks.add(Bukkit.getScheduler().runTaskTimer(plugin, () -> poll(polled, template), period, period));
+        }
+    }
+    
+    private void poll(Leaderboard board, PlaceholderTemplate template) {
+        for (Player player : Bukkit.getOnlinePlayers()) {
+            Double score = parseScore(template.apply(player));
+            if (score != null) {
+                board.update(player.getUniqueId(), player.getName(), score);
+            }
+        }
+    }
+    
+    /**
+     * Parse a placeholder value as a score, ignoring thousands separators and spaces
+     */
+    private static Double parseScore(String value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return Double.parseDouble(value.replace(",", "").replace(" ", "").replace("\u00A0", ""));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+    
+    /**
+     * Set a player's score on a leaderboard
+     *
+     * @return false if there is no such leaderboard
+     */
+    public boolean submit(String leaderboard, UUID playerId, String playerName, double score) {
+        Leaderboard board = getLeaderboard(leaderboard);
+        if (board == null) {
+            return false;
+        }
+        board.update(playerId, playerName, score);
+        return true;
+    }
+    
+    /**
+     * Get a leaderboard by name, ignoring case, or null if it is not configured
+     */
+    public Leaderboard getLeaderboard(String name) {
+        return leaderboards.get(name.toLowerCase());
+    }
+    
+    public Collection<Leaderboard> getLeaderboards() {
+        return leaderboards.values();
+    }
+    
+    /**
+     * Stop polling, wait for queued snapshot reads and writes, and save every changed leaderboard
+     */
+    public void shutdown() {
+        tasks.forEach(BukkitTask::cancel);
+        tasks.clear();
+        
+        CompletableFuture<Void> pending;
+        synchronized (this) {
+            pending = fileQueue;
+        }
+        try {
+            pending.get(10, TimeUnit.SECONDS);
+        } catch (TimeoutException | ExecutionException e) {
+            plugin.getLogger().warning("Pending leaderboard saves did not finish: " + e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        saveAll();
+    }
+    
+    /**
+     * Run a snapshot read or write on the worker pool after the ones queued before it,
+     * so no two of them touch the same file at once
+     */
+    private synchronized void queueFileTask(Runnable task) {
+        fileQueue = fileQueue.thenRunAsync(task, plugin.getWorkerPool().getExecutor()).exceptionally(e -> {
+            plugin.getLogger().warning("Leaderboard file task failed: " + e);
+            return null;
+        });
+    }
+    
+    private void saveAll() {
+        for (Leaderboard board : leaderboards.values()) {
+            save(board);
+        }
+    }
+    
+    private void save(Leaderboard board) {
+        if (!board.isDirty()) {
+            return;
+        }
+        try {
+            directory.mkdirs();
+            board.save(snapshotFile(board.getName()));
+        } catch (IOException e) {
+            plugin.getLogger().warning("Failed to save leaderboard " + board.getName() + ": " + e.getMessage());
+        }
+    }
+    
+    private void restore(Leaderboard board) {
+        File file = snapshotFile(board.getName());
+        try {
+            int restored = board.load(file);
+            if (restored > 0 && plugin.getConfigManager().isDebugMode()) {
+                plugin.getLogger().info("Restored " + restored + " score(s) of leaderboard " + board.getName());
+            }
+        } catch (IOException e) {
+            plugin.getLogger().warning("Failed to load leaderboard " + board.getName() + ": " + e.getMessage());
+        }
+    }
+    
+    private File snapshotFile(String name) {
+        return new File(directory, name + ".dat");
+    }
+}
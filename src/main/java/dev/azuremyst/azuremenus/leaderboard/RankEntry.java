@@ -0,0 +1,14 @@
+package dev.azuremyst.azuremenus.leaderboard;
+
+import java.util.UUID;
+
+/**
+ * A ranked leaderboard entry
+ *
+ * @param rank position counted from 1 for the highest score
+ * @param id player UUID
+ * @param name player name when the score was last set
+ * @param score the score
+ */
+public record RankEntry(int rank, UUID id, String name, double score) {
+}
@@ -0,0 +1,235 @@
+package dev.azuremyst.azuremenus.leaderboard;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Scores ordered from highest to lowest in a skip list whose links know how many entries they skip.
+ * Updates, rank lookups and finding the entry at a rank are O(log n); ties are broken by UUID.
+ * Not thread-safe.
+ */
+public class RankIndex {
+    
+    private static final int MAX_LEVEL = 32;
+    
+    private final Node head;
+    private final Map<UUID, Node> nodes;
+    private int level;
+    private int length;
+    
+    public RankIndex() {
+        this.head = new Node(null, null, 0, MAX_LEVEL);
+        this.nodes = new HashMap<>();
+        this.level = 1;
+    }
+    
+    /**
+     * Set the score of an entry, adding it if it is not ranked yet
+     */
+    public void put(UUID id, String name, double score) {
+        Node node = nodes.get(id);
+        if (node != null) {
+            if (node.score == score) {
+                node.name = name;
+                return;
+            }
+            unlink(node);
+        }
+        nodes.put(id, insert(id, name, score));
+    }
+    
+    /**
+     * Remove an entry
+     *
+     * @return whether the entry was ranked
+     */
+    public boolean remove(UUID id) {
+        Node node = nodes.remove(id);
+        if (node == null) {
+            return false;
+        }
+        unlink(node);
+        return true;
+    }
+    
+    /**
+     * Get the rank of an entry, counted from 1 for the highest score, or 0 if it is not ranked
+     */
+    public int rank(UUID id) {
+        Node node = nodes.get(id);
+        if (node == null) {
+            return 0;
+        }
+        
+        int rank = 0;
+        Node x = head;
+        for (int i = level - 1; i >= 0; i--) {
+            while (x.next[i] != null && (x.next[i] == node || precedes(x.next[i], node.score, node.id))) {
+                rank += x.span[i];
+                x = x.next[i];
+            }
+            if (x == node) {
+                return rank;
+            }
+        }
+        return 0;
+    }
+    
+    /**
+     * Get the entry of an id, or null if it is not ranked
+     */
+    public RankEntry get(UUID id) {
+        Node node = nodes.get(id);
+        return node != null ? new RankEntry(rank(id), node.id, node.name, node.score) : null;
+    }
+    
+    /**
+     * Get at most limit entries starting after the given number of higher ranked entries
+     */
+    public List<RankEntry> range(int offset, int limit) {
+        List<RankEntry> entries = new ArrayList<>(Math.max(0, Math.min(limit, length - offset)));
+        Node node = nodeAt(offset + 1);
+        for (int rank = offset + 1; node != null && entries.size() < limit; rank++) {
+            entries.add(new RankEntry(rank, node.id, node.name, node.score));
+            node = node.next[0];
+        }
+        return entries;
+    }
+    
+    /**
+     * Get every entry from the highest score down
+     */
+    public List<RankEntry> entries() {
+        return range(0, size());
+    }
+    
+    public boolean contains(UUID id) {
+        return nodes.containsKey(id);
+    }
+    
+    public int size() {
+        return length;
+    }
+    
+    private Node nodeAt(int rank) {
+        if (rank < 1 || rank > length) {
+            return null;
+        }
+        
+        int traversed = 0;
+        Node x = head;
+        for (int i = level - 1; i >= 0; i--) {
+            while (x.next[i] != null && traversed + x.span[i] <= rank) {
+                traversed += x.span[i];
+                x = x.next[i];
+            }
+            if (traversed == rank) {
+                return x;
+            }
+        }
+        return null;
+    }
+    
+    private Node insert(UUID id, String name, double score) {
+        Node[] update = new Node[MAX_LEVEL];
+        int[] rank = new int[MAX_LEVEL];
+        
+        // Find the last node before the new one on every level, and its rank
+        Node x = head;
+        for (int i = level - 1; i >= 0; i--) {
+            rank[i] = i == level - 1 ? 0 : rank[i + 1];
+            while (x.next[i] != null && precedes(x.next[i], score, id)) {
+                rank[i] += x.span[i];
+                x = x.next[i];
+            }
+            update[i] = x;
+        }
+        
+        int nodeLevel = randomLevel();
+        if (nodeLevel > level) {
+            for (int i = level; i < nodeLevel; i++) {
+                rank[i] = 0;
+                update[i] = head;
+                update[i].span[i] = length;
+            }
+            level = nodeLevel;
+        }
+        
+        Node node = new Node(id, name, score, nodeLevel);
+        for (int i = 0; i < nodeLevel; i++) {
+            node.next[i] = update[i].next[i];
+            update[i].next[i] = node;
+            node.span[i] = update[i].span[i] - (rank[0] - rank[i]);
+            update[i].span[i] = rank[0] - rank[i] + 1;
+        }
+        
+        // Links passing over the new node now skip one more entry
+        for (int i = nodeLevel; i < level; i++) {
+            update[i].span[i]++;
+        }
+        length++;
+        return node;
+    }
+    
+    private void unlink(Node node) {
+        Node[] update = new Node[MAX_LEVEL];
+        Node x = head;
+        for (int i = level - 1; i >= 0; i--) {
+            while (x.next[i] != null && precedes(x.next[i], node.score, node.id)) {
+                x = x.next[i];
+            }
+            update[i] = x;
+        }
+        
+        for (int i = 0; i < level; i++) {
+            if (update[i].next[i] == node) {
+                update[i].span[i] += node.span[i] - 1;
+                update[i].next[i] = node.next[i];
+            } else {
+                update[i].span[i]--;
+            }
+        }
+        
+        while (level > 1 && head.next[level - 1] == null) {
+            level--;
+        }
+        length--;
+    }
+    
+    /**
+     * Check if a node ranks above the given score and id
+     */
+    private static boolean precedes(Node node, double score, UUID id) {
+        return node.score > score || (node.score == score && node.id.compareTo(id) < 0);
+    }
+    
+    private static int randomLevel() {
+        int nodeLevel = 1;
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        while (nodeLevel < MAX_LEVEL && random.nextInt(4) == 0) {
+            nodeLevel++;
+        }
+        return nodeLevel;
+    }
+    
+    private static final class Node {
+        
+        private final UUID id;
+        private final double score;
+        private final Node[] next;
+        private final int[] span;
+        private String name;
+        
+        private Node(UUID id, String name, double score, int level) {
+            this.id = id;
+            this.name = name;
+            this.score = score;
+            this.next = new Node[level];
+            this.span = new int[level];
+        }
+    }
+}
@@ -1,7 +1,9 @@
 package dev.azuremyst.azuremenus.listeners;
 
 import dev.azuremyst.azuremenus.AzureMenusPlugin;
-import dev.azuremyst.azuremenus.menu.Menu;
+import dev.azuremyst.azuremenus.menu.items.MenuItem;
+import dev.azuremyst.azuremenus.menu.session.ClickLimiter;
+import dev.azuremyst.azuremenus.menu.session.MenuSession;
 import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.EventPriority;
@@ -9,6 +11,9 @@ import org.bukkit.event.Listener;
 import org.bukkit.event.inventory.InventoryClickEvent;
 import org.bukkit.event.inventory.InventoryCloseEvent;
 import org.bukkit.event.inventory.InventoryDragEvent;
+import org.bukkit.event.player.PlayerChangedWorldEvent;
+import org.bukkit.event.player.PlayerKickEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
 import org.bukkit.inventory.InventoryHolder;
 
 /**
@@ -29,7 +34,7 @@ public class MenuListener implements Listener {
     public void onInventoryClick(InventoryClickEvent event) {
         InventoryHolder holder = event.getInventory().getHolder();
         
-        if (!(holder instanceof Menu menu)) {
+        if (!(holder instanceof MenuSession session)) {
             return; // Not a menu
         }
         
@@ -44,11 +49,23 @@ public class MenuListener implements Listener {
         
         // Only handle clicks in the menu inventory, not player inventory
         if (slot >= 0 && slot < event.getInventory().getSize()) {
+            MenuItem item = session.getItem(slot);
+            if (item == null) {
+                return; // Nothing to run
+            }
+            
+            // Drop auto-clicker spam and duplicate double-click events before any action runs
+            ClickLimiter.Result result = plugin.getMenuManager().getClickLimiter()
+                .tryClick(player.getUniqueId(), slot, event.getClick(), item);
+            if (result != ClickLimiter.Result.ALLOWED) {
+                return;
+            }
+            
             try {
-                menu.handleClick(player, slot, event.getClick());
+                session.handleClick(slot, event.getClick());
             } catch (Exception e) {
                 plugin.getLogger().warning("Error handling menu click for player " + 
-                    player.getName() + " in menu " + menu.getName() + ": " + e.getMessage());
+                    player.getName() + " in menu " + session.getMenu().getName() + ": " + e.getMessage());
                 e.printStackTrace();
             }
         }
@@ -61,7 +78,7 @@ public class MenuListener implements Listener {
     public void onInventoryDrag(InventoryDragEvent event) {
         InventoryHolder holder = event.getInventory().getHolder();
         
-        if (holder instanceof Menu) {
+        if (holder instanceof MenuSession) {
             // Cancel dragging in menus
             event.setCancelled(true);
         }
@@ -74,11 +91,39 @@ public class MenuListener implements Listener {
     public void onInventoryClose(InventoryCloseEvent event) {
         InventoryHolder holder = event.getInventory().getHolder();
         
-        if (holder instanceof Menu menu && event.getPlayer() instanceof Player player) {
-            // Optional: Handle menu close logic here
+        if (holder instanceof MenuSession session && event.getPlayer() instanceof Player player) {
+            plugin.getMenuManager().unregisterSession(session);
+            
             if (plugin.getConfigManager().isDebugMode()) {
-                plugin.getLogger().info("Player " + player.getName() + " closed menu " + menu.getName());
+                plugin.getLogger().info("Player " + player.getName() + " closed menu " + session.getMenu().getName());
             }
         }
     }
+    
+    /**
+     * Drop the session, pending action delays and cached placeholder values of a player leaving the server
+     */
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerQuit(PlayerQuitEvent event) {
+        plugin.getMenuManager().removeSession(event.getPlayer().getUniqueId());
+        plugin.getActionExecutor().cancel(event.getPlayer().getUniqueId());
+        plugin.getPlaceholderService().invalidate(event.getPlayer().getUniqueId());
+    }
+    
+    /**
+     * Drop the session of a kicked player right away, before the quit event follows
+     */
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onPlayerKick(PlayerKickEvent event) {
+        plugin.getMenuManager().removeSession(event.getPlayer().getUniqueId());
+        plugin.getActionExecutor().cancel(event.getPlayer().getUniqueId());
+    }
+    
+    /**
+     * Permissions can be world-specific, so re-check them for an open menu
+     */
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onWorldChange(PlayerChangedWorldEvent event) {
+        plugin.getMenuManager().invalidatePermissions(event.getPlayer().getUniqueId());
+    }
 }
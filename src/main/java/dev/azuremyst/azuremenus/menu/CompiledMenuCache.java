@@ -0,0 +1,270 @@
+package dev.azuremyst.azuremenus.menu;
+
+import dev.azuremyst.azuremenus.AzureMenusPlugin;
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.configuration.file.YamlConfiguration;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Binary cache of parsed menu files.
+ * Each entry holds the configuration tree of one menu file, keyed by the SHA-256 of the file
+ * and the plugin version, so unchanged files skip YAML parsing on the next load.
+ * Thread-safe as long as each menu file is handled by a single thread at a time.
+ */
+public class CompiledMenuCache {
+    
+    private static final int MAGIC = 0x415A4D43; // "AZMC"
+    private static final int FORMAT_VERSION = 1;
+    
+    private static final byte NULL = 0;
+    private static final byte STRING = 1;
+    private static final byte INT = 2;
+    private static final byte LONG = 3;
+    private static final byte DOUBLE = 4;
+    private static final byte BOOLEAN = 5;
+    private static final byte LIST = 6;
+    private static final byte MAP = 7;
+    
+    private final AzureMenusPlugin plugin;
+    private final File directory;
+    private final String pluginVersion;
+    
+    public CompiledMenuCache(AzureMenusPlugin plugin) {
+        this.plugin = plugin;
+        this.directory = new File(plugin.getDataFolder(), "cache/menus");
+        this.pluginVersion = plugin.getDescription().getVersion();
+    }
+    
+    /**
+     * Hash the contents of a menu file
+     */
+    public static byte[] hash(byte[] content) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(content);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+    
+    /**
+     * Load the cached configuration of a menu file, or null if there is no entry for this exact content
+     */
+    public YamlConfiguration read(String menuName, byte[] hash) {
+        File file = cacheFile(menuName);
+        if (!file.exists()) {
+            return null;
+        }
+        
+        try {
+            // Read into memory rather than mapping the file: a mapping keeps the file locked on Windows
+            // until it is garbage collected, so a newer entry could not be moved over it
+            ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(file.toPath()));
+            
+            if (buffer.getInt() != MAGIC || buffer.getInt() != FORMAT_VERSION) {
+                return null;
+            }
+            if (!pluginVersion.equals(readString(buffer))) {
+                return null;
+            }
+            byte[] storedHash = new byte[buffer.getInt()];
+            buffer.get(storedHash);
+            if (!Arrays.equals(storedHash, hash)) {
+                return null;
+            }
+            
+            @SuppressWarnings("unchecked")
+            Map<String, Object> values = (Map<String, Object>) readValue(buffer);
+            return toConfiguration(values);
+            
+        } catch (IOException | RuntimeException e) {
+            // A damaged entry is simply rebuilt from the YAML
+            plugin.getLogger().warning("Ignoring unreadable menu cache " + file.getName() + ": " + e.getMessage());
+            return null;
+        }
+    }
+    
+    /**
+     * Store the parsed configuration of a menu file
+     */
+    public void write(String menuName, byte[] hash, ConfigurationSection config) {
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(4096);
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeInt(MAGIC);
+            out.writeInt(FORMAT_VERSION);
+            writeString(out, pluginVersion);
+            out.writeInt(hash.length);
+            out.write(hash);
+            writeValue(out, toMap(config));
+            out.flush();
+            
+            // Write next to the entry and swap it in, so readers never see a partial file
+            directory.mkdirs();
+            File target = cacheFile(menuName);
+            File temp = new File(directory, target.getName() + ".tmp");
+            Files.write(temp.toPath(), bytes.toByteArray());
+            Files.move(temp.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            
+        } catch (IOException e) {
+            plugin.getLogger().warning("Failed to write menu cache for " + menuName + ": " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Delete entries of menu files that no longer exist
+     */
+    public void retain(Set<String> menuNames) {
+        File[] files = directory.listFiles((dir, name) -> name.endsWith(".bin"));
+        if (files == null) {
+            return;
+        }
+        for (File file : files) {
+            String menuName = file.getName().substring(0, file.getName().length() - 4);
+            if (!menuNames.contains(menuName)) {
+                file.delete();
+            }
+        }
+    }
+    
+    /**
+     * Delete every entry
+     */
+    public void clear() {
+        retain(Set.of());
+    }
+    
+    private File cacheFile(String menuName) {
+        return new File(directory, menuName + ".bin");
+    }
+    
+    // Conversion between configuration sections and plain maps
+    
+    private static Map<String, Object> toMap(ConfigurationSection section) {
+        Map<String, Object> values = new LinkedHashMap<>();
+        for (String key : section.getKeys(false)) {
+            Object value = section.get(key);
+            values.put(key, value instanceof ConfigurationSection child ? toMap(child) : value);
+        }
+        return values;
+    }
+    
+    @SuppressWarnings("unchecked")
+    private static YamlConfiguration toConfiguration(Map<String, Object> values) {
+        YamlConfiguration config = new YamlConfiguration();
+        for (Map.Entry<String, Object> entry : values.entrySet()) {
+            if (entry.getValue() instanceof Map<?, ?> map) {
+                config.createSection(entry.getKey(), (Map<String, Object>) map);
+            } else {
+                config.set(entry.getKey(), entry.getValue());
+            }
+        }
+        return config;
+    }
+    
+    // Encoding
+    
+    private static void writeValue(DataOutputStream out, Object value) throws IOException {
+        if (value == null) {
+            out.writeByte(NULL);
+        } else if (value instanceof String string) {
+            out.writeByte(STRING);
+            writeString(out, string);
+        } else if (value instanceof Integer || value instanceof Short || value instanceof Byte) {
+            out.writeByte(INT);
+            out.writeInt(((Number) value).intValue());
+        } else if (value instanceof Long number) {
+            out.writeByte(LONG);
+            out.writeLong(number);
+        } else if (value instanceof Double || value instanceof Float) {
+            out.writeByte(DOUBLE);
+            out.writeDouble(((Number) value).doubleValue());
+        } else if (value instanceof Boolean bool) {
+            out.writeByte(BOOLEAN);
+            out.writeBoolean(bool);
+        } else if (value instanceof List<?> list) {
+            out.writeByte(LIST);
+            out.writeInt(list.size());
+            for (Object element : list) {
+                writeValue(out, element);
+            }
+        } else if (value instanceof Map<?, ?> map) {
+            out.writeByte(MAP);
+            out.writeInt(map.size());
+            for (Map.Entry<?, ?> entry : map.entrySet()) {
+                writeString(out, String.valueOf(entry.getKey()));
+                writeValue(out, entry.getValue());
+            }
+        } else if (value instanceof ConfigurationSection section) {
+            writeValue(out, toMap(section));
+        } else {
+            // Anything else YAML can produce (dates, big numbers) is kept as text
+            out.writeByte(STRING);
+            writeString(out, value.toString());
+        }
+    }
+    
+    private static Object readValue(ByteBuffer buffer) {
+        byte type = buffer.get();
+        switch (type) {
+            case NULL:
+                return null;
+            case STRING:
+                return readString(buffer);
+            case INT:
+                return buffer.getInt();
+            case LONG:
+                return buffer.getLong();
+            case DOUBLE:
+                return buffer.getDouble();
+            case BOOLEAN:
+                return buffer.get() != 0;
+            case LIST: {
+                int size = buffer.getInt();
+                List<Object> list = new ArrayList<>(size);
+                for (int i = 0; i < size; i++) {
+                    list.add(readValue(buffer));
+                }
+                return list;
+            }
+            case MAP: {
+                int size = buffer.getInt();
+                Map<String, Object> map = new LinkedHashMap<>(size * 2);
+                for (int i = 0; i < size; i++) {
+                    String key = readString(buffer);
+                    map.put(key, readValue(buffer));
+                }
+                return map;
+            }
+            default:
+                throw new IllegalStateException("Unknown value type " + type);
+        }
+    }
+    
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+    
+    private static String readString(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.getInt()];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
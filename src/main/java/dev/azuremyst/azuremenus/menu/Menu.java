@@ -1,23 +1,31 @@
 package dev.azuremyst.azuremenus.menu;
 
 import dev.azuremyst.azuremenus.AzureMenusPlugin;
+import dev.azuremyst.azuremenus.actions.Action;
+import dev.azuremyst.azuremenus.menu.condition.ConditionContext;
 import dev.azuremyst.azuremenus.menu.items.MenuItem;
+import dev.azuremyst.azuremenus.menu.session.MenuSession;
 import dev.azuremyst.azuremenus.utils.ColorUtil;
 import net.kyori.adventure.text.Component;
 import org.bukkit.Bukkit;
 import org.bukkit.entity.Player;
 import org.bukkit.inventory.Inventory;
-import org.bukkit.inventory.InventoryHolder;
-import org.jetbrains.annotations.NotNull;
+import org.bukkit.inventory.ItemStack;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
 /**
- * Represents a menu that can be displayed to players
+ * Represents a menu that can be displayed to players.
+ * A menu is a shared definition; every viewer gets their own {@link MenuSession}.
  */
-public class Menu implements InventoryHolder {
+public class Menu {
     
     private final String name;
     private final String title;
@@ -29,12 +37,27 @@ public class Menu implements InventoryHolder {
     private final boolean fillEmpty;
     private final MenuItem fillItem;
     private final Map<String, Object> properties;
+    private final Pagination pagination;
     
-    private Inventory inventory;
+    // Slots whose items re-render periodically, with their intervals in ticks
+    private final int[] refreshSlots;
+    private final int[] refreshIntervals;
+    private final int refreshPeriod;
+    
+    // Every permission checked while viewing this menu, numbered for per-session snapshots
+    private final PermissionIndex permissionIndex;
+    private final boolean ownerSkulls;
     
     public Menu(String name, String title, int size, Map<Integer, MenuItem> items,
                 Set<String> permissions, int updateInterval, String sound,
                 boolean fillEmpty, MenuItem fillItem, Map<String, Object> properties) {
+        this(name, title, size, items, permissions, updateInterval, sound, fillEmpty, fillItem, properties, null);
+    }
+    
+    public Menu(String name, String title, int size, Map<Integer, MenuItem> items,
+                Set<String> permissions, int updateInterval, String sound,
+                boolean fillEmpty, MenuItem fillItem, Map<String, Object> properties,
+                Pagination pagination) {
         this.name = name;
         this.title = title;
         this.size = validateSize(size);
@@ -45,8 +68,87 @@ public class Menu implements InventoryHolder {
         this.fillEmpty = fillEmpty;
         this.fillItem = fillItem;
         this.properties = properties != null ? properties : new HashMap<>();
+        this.pagination = pagination;
         
-        createInventory();
+        // Collect refreshing slots and the tick period that serves all of them, leaving out slots the pages own
+        List<Integer> slots = new ArrayList<>();
+        for (Map.Entry<Integer, MenuItem> entry : this.items.entrySet()) {
+            if (entry.getKey() < this.size && entry.getValue().isRefreshing() && !isPageSlot(entry.getKey())) {
+                slots.add(entry.getKey());
+            }
+        }
+        Collections.sort(slots);
+        
+        this.refreshSlots = new int[slots.size()];
+        this.refreshIntervals = new int[slots.size()];
+        int period = 0;
+        for (int i = 0; i < slots.size(); i++) {
+            refreshSlots[i] = slots.get(i);
+            refreshIntervals[i] = this.items.get(slots.get(i)).getRefreshInterval();
+            period = gcd(period, refreshIntervals[i]);
+        }
+        this.refreshPeriod = period;
+        this.permissionIndex = collectPermissions();
+        this.ownerSkulls = allItems().stream()
+            .anyMatch(item -> item.getSkullOwner() != null && !item.getSkullOwner().isEmpty());
+    }
+    
+    /**
+     * Get every item of this menu: fixed items, the fill item, and pagination content and buttons
+     */
+    private List<MenuItem> allItems() {
+        List<MenuItem> allItems = new ArrayList<>(items.values());
+        if (fillItem != null) {
+            allItems.add(fillItem);
+        }
+        if (pagination != null) {
+            allItems.addAll(pagination.getContent());
+            allItems.addAll(pagination.getNavigationItems().values());
+        }
+        return allItems;
+    }
+    
+    private boolean isPageSlot(int slot) {
+        return pagination != null && (pagination.isContentSlot(slot) || pagination.getNavigation(slot) != null);
+    }
+    
+    /**
+     * Collect the permissions of the menu, its items, their conditions and their actions
+     */
+    private PermissionIndex collectPermissions() {
+        List<String> nodes = new ArrayList<>(permissions);
+        for (MenuItem item : allItems()) {
+            nodes.addAll(item.getPermissions());
+            if (item.getCompiledCondition() != null) {
+                nodes.addAll(item.getCompiledCondition().getPermissions());
+            }
+            for (Action action : item.getActions()) {
+                nodes.add(action.getPermission());
+            }
+        }
+        return PermissionIndex.of(nodes);
+    }
+    
+    private static int gcd(int a, int b) {
+        return b == 0 ? a : gcd(b, a % b);
+    }
+    
+    /**
+     * Build the item templates of this menu. Must run on the main thread.
+     * Pagination content is left to be built page by page as viewers reach it.
+     */
+    public void prepare() {
+        for (MenuItem item : new HashSet<>(items.values())) {
+            item.buildTemplate();
+        }
+        if (fillItem != null) {
+            fillItem.buildTemplate();
+        }
+        if (pagination != null) {
+            for (MenuItem item : pagination.getNavigationItems().values()) {
+                item.buildTemplate();
+            }
+        }
     }
     
     /**
@@ -60,21 +162,28 @@ public class Menu implements InventoryHolder {
     }
     
     /**
-     * Create the Bukkit inventory
+     * Create a Bukkit inventory for a viewer session
      */
-    private void createInventory() {
+    public Inventory createInventory(MenuSession session) {
         Component titleComponent = ColorUtil.parseComponent(title);
-        this.inventory = Bukkit.createInventory(this, size, titleComponent);
+        return Bukkit.createInventory(session, size, titleComponent);
     }
     
     /**
      * Check if player has permission to view this menu
      */
     public boolean hasPermission(Player player) {
+        return hasPermission(ConditionContext.of(player));
+    }
+    
+    /**
+     * Check if the viewer of a context has permission to view this menu
+     */
+    public boolean hasPermission(ConditionContext context) {
         if (permissions.isEmpty()) return true;
         
         for (String permission : permissions) {
-            if (player.hasPermission(permission)) {
+            if (context.hasPermission(permission)) {
                 return true;
             }
         }
@@ -82,16 +191,16 @@ public class Menu implements InventoryHolder {
     }
     
     /**
-     * Populate inventory with items
+     * Build the contents of this menu as seen by a viewer.
+     * Slots of the pagination content mask are left to the viewer's session.
      */
-    public void populate(Player player) {
-        inventory.clear();
+    public ItemStack[] buildContents(ConditionContext context) {
+        Player player = context.getPlayer();
+        ItemStack[] contents = new ItemStack[size];
         
-        // Fill empty slots if configured
+        // Fill empty slots if configured, sharing one built stack across all slots
         if (fillEmpty && fillItem != null) {
-            for (int i = 0; i < size; i++) {
-                inventory.setItem(i, fillItem.buildItemStack(player));
-            }
+            Arrays.fill(contents, fillItem.buildItemStack(player));
         }
         
         // Place menu items
@@ -99,19 +208,65 @@ public class Menu implements InventoryHolder {
             int slot = entry.getKey();
             MenuItem item = entry.getValue();
             
-            if (slot >= 0 && slot < size && item.canView(player)) {
-                inventory.setItem(slot, item.buildItemStack(player));
+            if (slot >= 0 && slot < size && item.canView(context)) {
+                contents[slot] = item.buildItemStack(player);
             }
         }
+        
+        return contents;
+    }
+    
+    /**
+     * Build the item shown in a single slot for a viewer
+     */
+    public ItemStack buildSlot(ConditionContext context, int slot) {
+        MenuItem item = items.get(slot);
+        if (item != null && item.canView(context)) {
+            return item.buildItemStack(context.getPlayer());
+        }
+        
+        // Hidden or missing items fall back to the fill item
+        return buildFill(context);
+    }
+    
+    /**
+     * Build the fill item for a viewer, or null if empty slots are not filled
+     */
+    public ItemStack buildFill(ConditionContext context) {
+        if (fillEmpty && fillItem != null) {
+            return fillItem.buildItemStack(context.getPlayer());
+        }
+        return null;
+    }
+    
+    /**
+     * Build the content templates of a page during the next tick, so turning to it only builds per-player parts
+     */
+    public void prefetchPage(int page) {
+        if (pagination == null || page >= pagination.getPageCount() || pagination.isPrefetched(page)) {
+            return;
+        }
+        
+        AzureMenusPlugin plugin = AzureMenusPlugin.getInstance();
+        if (plugin.isEnabled()) {
+            Bukkit.getScheduler().runTask(plugin, () -> pagination.prefetch(page));
+        }
     }
     
     /**
      * Handle click on menu item
      */
     public void handleClick(Player player, int slot, org.bukkit.event.inventory.ClickType clickType) {
+        handleClick(ConditionContext.of(player), slot, clickType);
+    }
+    
+    /**
+     * Handle click on menu item, answering permission checks from the context
+     */
+    public void handleClick(ConditionContext context, int slot, org.bukkit.event.inventory.ClickType clickType) {
         MenuItem item = items.get(slot);
         if (item != null) {
-            item.handleClick(player, clickType);
+            item.handleClick(context, clickType);
         }
     }
     
@@ -119,14 +274,19 @@ public class Menu implements InventoryHolder {
      * Open menu for player
      */
     public void open(Player player) {
-        if (!hasPermission(player)) {
+        // The session resolves all permissions of this menu at once, so check access through it
+        MenuSession session = new MenuSession(this, player);
+        if (!hasPermission(session)) {
             AzureMenusPlugin.getInstance().getLanguageManager()
                 .sendPrefixedMessage(player, "menus.errors.permission-denied");
             return;
         }
         
-        populate(player);
-        player.openInventory(inventory);
+        session.render();
+        
+        // Register before opening so the close event of a previous menu does not drop the new session
+        AzureMenusPlugin.getInstance().getMenuManager().registerSession(session);
+        player.openInventory(session.getInventory());
         
         // Play sound if configured
         if (sound != null && !sound.isEmpty()) {
@@ -140,17 +300,6 @@ public class Menu implements InventoryHolder {
         }
     }
     
-    /**
-     * Update menu for all viewers
-     */
-    public void update() {
-        for (org.bukkit.entity.HumanEntity viewer : inventory.getViewers()) {
-            if (viewer instanceof Player player) {
-                populate(player);
-            }
-        }
-    }
-    
     // Getters
     public String getName() {
         return name;
@@ -176,6 +325,32 @@ public class Menu implements InventoryHolder {
         return updateInterval;
     }
     
+    public int[] getRefreshSlots() {
+        return refreshSlots;
+    }
+    
+    public int[] getRefreshIntervals() {
+        return refreshIntervals;
+    }
+    
+    /**
+     * Get the tick period at which refreshing items can become due (0 if nothing refreshes)
+     */
+    public int getRefreshPeriod() {
+        return refreshPeriod;
+    }
+    
+    public PermissionIndex getPermissionIndex() {
+        return permissionIndex;
+    }
+    
+    /**
+     * Check if any item shows the head of a named player
+     */
+    public boolean hasOwnerSkulls() {
+        return ownerSkulls;
+    }
+    
     public String getSound() {
         return sound;
     }
@@ -192,9 +367,10 @@ public class Menu implements InventoryHolder {
         return properties;
     }
     
-    @Override
-    @NotNull
-    public Inventory getInventory() {
-        return inventory;
+    /**
+     * Get the pagination of this menu, or null if it only has fixed items
+     */
+    public Pagination getPagination() {
+        return pagination;
     }
 }
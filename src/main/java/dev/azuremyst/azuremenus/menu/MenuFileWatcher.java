@@ -0,0 +1,194 @@
+package dev.azuremyst.azuremenus.menu;
+
+import dev.azuremyst.azuremenus.AzureMenusPlugin;
+import org.bukkit.Bukkit;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Watches the menus directory and reloads menu files as they are changed, added or deleted.
+ * Changes are debounced per file, so an editor saving in several steps causes a single reload.
+ */
+public class MenuFileWatcher {
+    
+    private static final long IDLE_POLL_MILLIS = 1000;
+    
+    private final AzureMenusPlugin plugin;
+    private final MenuManager menuManager;
+    
+    // Changed menu names, with the time (System.nanoTime) they are reloaded at
+    private final Map<String, Long> pendingChanges;
+    
+    private WatchService watchService;
+    private Thread thread;
+    private volatile boolean running;
+    private volatile long debounceNanos;
+    
+    public MenuFileWatcher(AzureMenusPlugin plugin, MenuManager menuManager) {
+        this.plugin = plugin;
+        this.menuManager = menuManager;
+        this.pendingChanges = new ConcurrentHashMap<>();
+    }
+    
+    /**
+     * Start watching, or apply the current debounce setting if already started
+     */
+    public void start() {
+        this.debounceNanos = TimeUnit.MILLISECONDS.toNanos(
+            Math.max(0, plugin.getConfigManager().get("menu-watcher.debounce", 500)));
+        if (running) {
+            return;
+        }
+        
+        File directory = menuManager.getMenusDirectory();
+        try {
+            watchService = FileSystems.getDefault().newWatchService();
+            directory.toPath().register(watchService,
+                StandardWatchEventKinds.ENTRY_CREATE,
+                StandardWatchEventKinds.ENTRY_MODIFY,
+                StandardWatchEventKinds.ENTRY_DELETE);
+        } catch (IOException e) {
+            plugin.getLogger().warning("Failed to watch menus directory: " + e.getMessage());
+            closeWatchService();
+            return;
+        }
+        
+        running = true;
+        WatchService service = watchService;
+        thread = new Thread(() -> run(service), "AzureMenus-MenuWatcher");
+        thread.setDaemon(true);
+        thread.start();
+        
+        if (plugin.getConfigManager().isDebugMode()) {
+            plugin.getLogger().info("Watching " + directory.getPath() + " for menu changes");
+        }
+    }
+    
+    /**
+     * Stop watching and drop changes that have not been reloaded yet
+     */
+    public void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        closeWatchService();
+        thread.interrupt();
+        thread = null;
+        pendingChanges.clear();
+    }
+    
+    public boolean isRunning() {
+        return running;
+    }
+    
+    private void run(WatchService service) {
+        while (running) {
+            WatchKey key;
+            try {
+                key = service.poll(nextWaitMillis(), TimeUnit.MILLISECONDS);
+            } catch (InterruptedException | ClosedWatchServiceException e) {
+                break;
+            }
+            
+            if (key != null) {
+                collectChanges(key);
+                if (!key.reset()) {
+                    plugin.getLogger().warning("Menus directory is no longer accessible, stopped watching it");
+                    if (plugin.isEnabled()) {
+                        Bukkit.getScheduler().runTask(plugin, this::stop);
+                    }
+                    break;
+                }
+            }
+            reloadDueChanges();
+        }
+    }
+    
+    private void collectChanges(WatchKey key) {
+        long dueAt = System.nanoTime() + debounceNanos;
+        
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                // Events were lost, so check every file we know of
+                for (File file : listMenuFiles()) {
+                    pendingChanges.put(MenuManager.toMenuName(file.getName()), dueAt);
+                }
+                for (String menuName : menuManager.getMenuNames()) {
+                    pendingChanges.putIfAbsent(menuName, dueAt);
+                }
+                continue;
+            }
+            
+            String fileName = ((Path) event.context()).getFileName().toString();
+            if (fileName.endsWith(".yml") || fileName.endsWith(".yaml")) {
+                pendingChanges.put(MenuManager.toMenuName(fileName), dueAt);
+            }
+        }
+    }
+    
+    /**
+     * Hand changes whose debounce period has passed to the main thread
+     */
+    private void reloadDueChanges() {
+        long now = System.nanoTime();
+        List<String> due = new ArrayList<>();
+        for (Map.Entry<String, Long> entry : pendingChanges.entrySet()) {
+            if (entry.getValue() - now <= 0 && pendingChanges.remove(entry.getKey(), entry.getValue())) {
+                due.add(entry.getKey());
+            }
+        }
+        
+        if (due.isEmpty() || !plugin.isEnabled()) {
+            return;
+        }
+        Bukkit.getScheduler().runTask(plugin, () -> {
+            for (String menuName : due) {
+                menuManager.reloadMenu(menuName);
+            }
+        });
+    }
+    
+    /**
+     * Time until the earliest pending change is due
+     */
+    private long nextWaitMillis() {
+        long now = System.nanoTime();
+        long wait = TimeUnit.MILLISECONDS.toNanos(IDLE_POLL_MILLIS);
+        for (long dueAt : pendingChanges.values()) {
+            wait = Math.min(wait, dueAt - now);
+        }
+        return Math.max(1, TimeUnit.NANOSECONDS.toMillis(wait));
+    }
+    
+    private File[] listMenuFiles() {
+        File[] files = menuManager.getMenusDirectory().listFiles((dir, name) ->
+            name.endsWith(".yml") || name.endsWith(".yaml"));
+        return files != null ? files : new File[0];
+    }
+    
+    private void closeWatchService() {
+        if (watchService == null) {
+            return;
+        }
+        try {
+            watchService.close();
+        } catch (IOException ignored) {
+            // Nothing left to release
+        }
+        watchService = null;
+    }
+}
@@ -0,0 +1,27 @@
+package dev.azuremyst.azuremenus.menu;
+
+/**
+ * Timings of loading one menu file
+ *
+ * @param file file name
+ * @param readNanos time spent reading the file and decoding it, from YAML or the compiled cache
+ * @param parseNanos time spent turning the YAML into a menu
+ * @param prepareNanos time spent building item templates on the main thread
+ * @param items number of configured item slots
+ * @param loaded whether the menu was registered
+ * @param cached whether the configuration came from the compiled menu cache instead of YAML
+ */
+public record MenuLoadStats(String file, long readNanos, long parseNanos, long prepareNanos,
+                            int items, boolean loaded, boolean cached) {
+    
+    public long totalNanos() {
+        return readNanos + parseNanos + prepareNanos;
+    }
+    
+    @Override
+    public String toString() {
+        return String.format("%s: %s%s, %d item(s), read %.2f ms, parse %.2f ms, prepare %.2f ms",
+            file, loaded ? "loaded" : "failed", cached ? " from cache" : "", items,
+            readNanos / 1_000_000.0, parseNanos / 1_000_000.0, prepareNanos / 1_000_000.0);
+    }
+}
@@ -1,15 +1,25 @@
 package dev.azuremyst.azuremenus.menu;
 
 import dev.azuremyst.azuremenus.AzureMenusPlugin;
+import dev.azuremyst.azuremenus.menu.session.ClickLimiter;
+import dev.azuremyst.azuremenus.menu.session.MenuSession;
+import dev.azuremyst.azuremenus.menu.session.MenuViewerRegistry;
+import dev.azuremyst.azuremenus.menu.session.SearchPrompt;
+import dev.azuremyst.azuremenus.utils.CacheStats;
 import org.bukkit.Bukkit;
 import org.bukkit.configuration.file.YamlConfiguration;
 import org.bukkit.entity.Player;
-import org.bukkit.scheduler.BukkitRunnable;
-import org.bukkit.scheduler.BukkitTask;
 
 import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
 
 /**
  * Manages menu loading, caching and operations
@@ -17,159 +27,827 @@ import java.util.concurrent.ConcurrentHashMap;
 public class MenuManager {
     
     private final AzureMenusPlugin plugin;
-    private final Map<String, Menu> loadedMenus;
-    private final Map<String, BukkitTask> updateTasks;
+    private final AtomicReference<MenuRegistry> registry;
+    private final MenuViewerRegistry viewers;
     private final MenuParser parser;
+    private final MenuUpdateScheduler updateScheduler;
+    private final CompiledMenuCache compiledCache;
+    private final MenuFileWatcher fileWatcher;
+    private final ClickLimiter clickLimiter;
+    private final SearchPrompt searchPrompt;
+    
+    // Readiness gate: opens requested while menus are loading are queued per player
+    private final Map<UUID, String> pendingOpens;
+    private final AtomicInteger loadGeneration;
+    private volatile boolean ready;
+    private volatile List<MenuLoadStats> loadStats;
+    
+    // Lazy loading: every menu file is indexed, but only opened menus are parsed and kept resident
+    private volatile Map<String, File> menuIndex;
+    private volatile boolean lazyLoading;
+    private final Map<String, CompletableFuture<Menu>> lazyLoads;
+    // Last time each resident menu was opened or left by its last viewer
+    private final Map<String, Long> lastUsed;
+    private final LongAdder cacheHits;
+    private final LongAdder cacheMisses;
+    private final LongAdder cacheEvictions;
     
     public MenuManager(AzureMenusPlugin plugin) {
         this.plugin = plugin;
-        this.loadedMenus = new ConcurrentHashMap<>();
-        this.updateTasks = new ConcurrentHashMap<>();
+        this.registry = new AtomicReference<>(MenuRegistry.EMPTY);
+        this.viewers = new MenuViewerRegistry();
         this.parser = new MenuParser(plugin);
+        this.updateScheduler = new MenuUpdateScheduler(plugin);
+        this.compiledCache = new CompiledMenuCache(plugin);
+        this.fileWatcher = new MenuFileWatcher(plugin, this);
+        this.clickLimiter = new ClickLimiter(plugin);
+        this.searchPrompt = new SearchPrompt(plugin);
+        this.pendingOpens = new ConcurrentHashMap<>();
+        this.loadGeneration = new AtomicInteger();
+        this.loadStats = List.of();
+        this.menuIndex = Map.of();
+        this.lazyLoads = new ConcurrentHashMap<>();
+        this.lastUsed = new ConcurrentHashMap<>();
+        this.cacheHits = new LongAdder();
+        this.cacheMisses = new LongAdder();
+        this.cacheEvictions = new LongAdder();
     }
     
     /**
-     * Load all menus from the menus directory
+     * Load all menus from the menus directory.
+     * Files are read and parsed in parallel on the worker pool, then published on the main thread
+     * as a new registry generation. Until the first load has finished, menu opens are queued;
+     * during later loads the previous generation keeps serving.
+     * With lazy loading only the files are indexed, and just the menus already resident are parsed again.
+     *
+     * @return future completing on the main thread once the menus are registered
      */
-    public void loadMenus() {
-        // Clear existing menus and tasks
-        stopAllUpdateTasks();
-        loadedMenus.clear();
+    public CompletableFuture<Void> loadMenus() {
+        int generation = loadGeneration.incrementAndGet();
+        updateScheduler.start();
+        clickLimiter.load();
+        long startNanos = System.nanoTime();
         
-        File menusDir = new File(plugin.getDataFolder(), "menus");
+        File menusDir = getMenusDirectory();
         if (!menusDir.exists()) {
             menusDir.mkdirs();
             plugin.getLogger().info("Created menus directory");
         }
         
+        if (plugin.getConfigManager().get("menu-watcher.enabled", false)) {
+            fileWatcher.start();
+        } else {
+            fileWatcher.stop();
+        }
+        
+        this.lazyLoading = plugin.getConfigManager().isLazyLoading();
         File[] menuFiles = menusDir.listFiles((dir, name) -> name.endsWith(".yml") || name.endsWith(".yaml"));
         if (menuFiles == null || menuFiles.length == 0) {
             plugin.getLogger().info("No menu files found in menus directory");
-            return;
+            this.menuIndex = Map.of();
+            finishLoading(generation, List.of(), startNanos);
+            return CompletableFuture.completedFuture(null);
         }
         
-        int loadedCount = 0;
+        // Read and parse the files in parallel
+        boolean useCache = plugin.getConfigManager().isCompiledMenuCache();
+        MenuRegistry current = registry.get();
+        List<CompletableFuture<ParsedMenu>> tasks = new ArrayList<>(menuFiles.length);
+        Map<String, File> index = new HashMap<>();
+        Set<String> menuNames = new HashSet<>();
         for (File menuFile : menuFiles) {
-            String menuName = menuFile.getName().replaceAll("\\.(yml|yaml)$", "");
+            String menuName = toMenuName(menuFile);
+            menuNames.add(menuName);
+            index.put(menuName.toLowerCase(), menuFile);
+            if (!lazyLoading || current.contains(menuName)) {
+                tasks.add(plugin.getWorkerPool().supply(() -> parseFile(menuFile, useCache)));
+            }
+        }
+        this.menuIndex = Map.copyOf(index);
+        
+        // Drop cache entries of deleted files
+        if (useCache) {
+            plugin.getWorkerPool().run(() -> compiledCache.retain(menuNames));
+        } else {
+            plugin.getWorkerPool().run(compiledCache::clear);
+        }
+        
+        CompletableFuture<Void> done = new CompletableFuture<>();
+        CompletableFuture.allOf(tasks.toArray(new CompletableFuture[0])).whenComplete((ignored, error) -> {
+            if (!plugin.isEnabled()) {
+                return;
+            }
+            Bukkit.getScheduler().runTask(plugin, () -> {
+                List<ParsedMenu> parsed = new ArrayList<>(tasks.size());
+                for (CompletableFuture<ParsedMenu> task : tasks) {
+                    // parseFile handles its own errors, so every task completed normally
+                    parsed.add(task.join());
+                }
+                finishLoading(generation, parsed, startNanos);
+                done.complete(null);
+            });
+        });
+        return done;
+    }
+    
+    /**
+     * Read and parse one menu file. Runs on a worker thread.
+     * When the compiled cache has an entry for the exact file contents, the YAML is not parsed.
+     */
+    private ParsedMenu parseFile(File menuFile, boolean useCache) {
+        String menuName = toMenuName(menuFile);
+        long readNanos = 0;
+        long parseStart = 0;
+        boolean cached = false;
+        
+        try {
+            long readStart = System.nanoTime();
+            byte[] content = Files.readAllBytes(menuFile.toPath());
+            byte[] hash = useCache ? CompiledMenuCache.hash(content) : null;
+            
+            YamlConfiguration config = useCache ? compiledCache.read(menuName, hash) : null;
+            cached = config != null;
+            if (config == null) {
+                config = new YamlConfiguration();
+                config.loadFromString(new String(content, StandardCharsets.UTF_8));
+            }
+            readNanos = System.nanoTime() - readStart;
+            
+            // Writing the cache is left out of the read time, so YAML and cached reads compare like for like
+            if (!cached && useCache) {
+                compiledCache.write(menuName, hash, config);
+            }
+            parseStart = System.nanoTime();
             
+            Menu menu = parser.parseMenu(menuName, config);
+            return new ParsedMenu(menuFile.getName(), menuName, menu, readNanos, System.nanoTime() - parseStart,
+                cached);
+            
+        } catch (Exception e) {
+            plugin.getLogger().severe("Error loading menu file " + menuFile.getName() + ": " + e.getMessage());
+            e.printStackTrace();
+            long parseNanos = parseStart > 0 ? System.nanoTime() - parseStart : 0;
+            return new ParsedMenu(menuFile.getName(), menuName, null, readNanos, parseNanos, cached);
+        }
+    }
+    
+    private static String toMenuName(File menuFile) {
+        return toMenuName(menuFile.getName());
+    }
+    
+    static String toMenuName(String fileName) {
+        return fileName.replaceAll("\\.(yml|yaml)$", "");
+    }
+    
+    File getMenusDirectory() {
+        return new File(plugin.getDataFolder(), "menus");
+    }
+    
+    /**
+     * Find the file of a menu, ignoring case
+     */
+    private File findMenuFile(String menuName) {
+        File[] menuFiles = getMenusDirectory().listFiles((dir, name) ->
+            (name.endsWith(".yml") || name.endsWith(".yaml")) && toMenuName(name).equalsIgnoreCase(menuName));
+        return menuFiles != null && menuFiles.length > 0 ? menuFiles[0] : null;
+    }
+    
+    /**
+     * Check if a menu has a file in the menus folder, whether or not it is loaded
+     */
+    public boolean hasMenuFile(String menuName) {
+        return findMenuFile(menuName) != null;
+    }
+    
+    /**
+     * Reload a single menu file, leaving every other menu and its viewers untouched.
+     * Viewers of the menu are moved to the new version. If the file no longer exists the menu is
+     * unloaded and its viewers are closed; if it fails to load, the previous version stays in use.
+     *
+     * @return future completing on the main thread with whether the new version was registered
+     */
+    public CompletableFuture<Boolean> reloadMenu(String menuName) {
+        int generation = loadGeneration.get();
+        File menuFile = findMenuFile(menuName);
+        updateIndex(menuName, menuFile);
+        if (menuFile == null) {
+            unloadMenu(menuName);
+            return CompletableFuture.completedFuture(false);
+        }
+        if (lazyLoading && !registry.get().contains(menuName)) {
+            // Not resident, the next open parses the new version
+            return CompletableFuture.completedFuture(true);
+        }
+        
+        boolean useCache = plugin.getConfigManager().isCompiledMenuCache();
+        CompletableFuture<Boolean> done = new CompletableFuture<>();
+        plugin.getWorkerPool().supply(() -> parseFile(menuFile, useCache)).whenComplete((parsed, error) -> {
+            if (!plugin.isEnabled()) {
+                return;
+            }
+            Bukkit.getScheduler().runTask(plugin, () -> done.complete(finishReload(generation, parsed)));
+        });
+        return done;
+    }
+    
+    /**
+     * Swap in a reloaded menu. Runs on the main thread.
+     */
+    private boolean finishReload(int generation, ParsedMenu parsed) {
+        if (generation != loadGeneration.get()) {
+            return false; // A full load has started since and will pick up the file
+        }
+        
+        Menu menu = parsed.menu();
+        if (menu != null) {
             try {
-                YamlConfiguration config = YamlConfiguration.loadConfiguration(menuFile);
-                Menu menu = parser.parseMenu(menuName, config);
-                
-                if (menu != null) {
-                    loadedMenus.put(menuName.toLowerCase(), menu);
-                    
-                    // Start update task if needed
-                    if (menu.getUpdateInterval() > 0) {
-                        startUpdateTask(menu);
-                    }
+                menu.prepare();
+            } catch (Exception e) {
+                plugin.getLogger().severe("Error preparing menu " + parsed.menuName() + ": " + e.getMessage());
+                menu = null;
+            }
+        }
+        if (menu == null) {
+            plugin.getLogger().warning("Failed to reload menu " + parsed.menuName() + ", keeping the previous version");
+            return false;
+        }
+        
+        Menu replacement = menu;
+        registry.updateAndGet(current -> current.with(parsed.menuName(), replacement));
+        migrateViewers(parsed.menuName(), menu);
+        plugin.getLogger().info("Reloaded menu: " + parsed.menuName());
+        return true;
+    }
+    
+    /**
+     * Remove a menu whose file was deleted and close it for its viewers
+     */
+    private void unloadMenu(String menuName) {
+        if (registry.get().contains(menuName)) {
+            registry.updateAndGet(current -> current.without(menuName));
+            lastUsed.remove(menuName.toLowerCase());
+            closeMenu(menuName);
+            plugin.getLogger().info("Unloaded menu: " + menuName);
+        }
+    }
+    
+    /**
+     * Add, replace or remove (for a null file) one entry of the menu file index
+     */
+    private void updateIndex(String menuName, File menuFile) {
+        Map<String, File> index = new HashMap<>(menuIndex);
+        if (menuFile != null) {
+            index.put(menuName.toLowerCase(), menuFile);
+        } else {
+            index.remove(menuName.toLowerCase());
+        }
+        this.menuIndex = Map.copyOf(index);
+    }
+    
+    /**
+     * Parse a menu that is indexed but not resident, once even if it is opened by several players at once
+     *
+     * @return future completing on the main thread with the menu, or null if it could not be loaded
+     */
+    private CompletableFuture<Menu> loadLazily(String menuName) {
+        String key = menuName.toLowerCase();
+        return lazyLoads.computeIfAbsent(key, ignored -> {
+            File menuFile = menuIndex.get(key);
+            boolean useCache = plugin.getConfigManager().isCompiledMenuCache();
+            CompletableFuture<Menu> done = new CompletableFuture<>();
+            cacheMisses.increment();
+            
+            plugin.getWorkerPool().supply(() -> parseFile(menuFile, useCache)).whenComplete((parsed, error) -> {
+                if (!plugin.isEnabled()) {
+                    return;
+                }
+                Bukkit.getScheduler().runTask(plugin, () -> {
+                    lazyLoads.remove(key);
+                    done.complete(error == null ? finishLazyLoad(parsed) : null);
+                });
+            });
+            return done;
+        });
+    }
+    
+    /**
+     * Make a lazily parsed menu resident. Runs on the main thread.
+     */
+    private Menu finishLazyLoad(ParsedMenu parsed) {
+        Menu resident = registry.get().get(parsed.menuName());
+        if (resident != null) {
+            return resident; // Loaded by a reload in the meantime
+        }
+        if (!menuIndex.containsKey(parsed.menuName().toLowerCase())) {
+            return null; // Deleted in the meantime
+        }
+        
+        Menu menu = parsed.menu();
+        if (menu == null) {
+            plugin.getLogger().warning("Failed to load menu: " + parsed.menuName());
+            return null;
+        }
+        try {
+            menu.prepare();
+        } catch (Exception e) {
+            plugin.getLogger().severe("Error preparing menu " + parsed.menuName() + ": " + e.getMessage());
+            return null;
+        }
+        
+        registry.updateAndGet(current -> current.with(parsed.menuName(), menu));
+        lastUsed.put(parsed.menuName().toLowerCase(), System.currentTimeMillis());
+        if (plugin.getConfigManager().isDebugMode()) {
+            plugin.getLogger().info("Loaded menu on first open: " + parsed.menuName());
+        }
+        trimResidentMenus();
+        return menu;
+    }
+    
+    /**
+     * Evict resident menus that have had no viewers for the given time
+     *
+     * @return number of evicted menus
+     */
+    public int evictIdleMenus(long idleMillis) {
+        if (!lazyLoading) {
+            return 0;
+        }
+        
+        long cutoff = System.currentTimeMillis() - idleMillis;
+        int evicted = 0;
+        for (Menu menu : registry.get().getMenus()) {
+            Long used = lastUsed.get(menu.getName().toLowerCase());
+            if ((used == null || used < cutoff) && evict(menu)) {
+                evicted++;
+            }
+        }
+        return evicted;
+    }
+    
+    /**
+     * Evict the least recently used menus without viewers until at most max-cache-size are resident
+     */
+    private void trimResidentMenus() {
+        int maxResident = plugin.getConfigManager().getMaxCacheSize();
+        MenuRegistry current = registry.get();
+        if (!lazyLoading || maxResident <= 0 || current.size() <= maxResident) {
+            return;
+        }
+        
+        List<Menu> candidates = new ArrayList<>(current.getMenus());
+        candidates.sort(Comparator.comparingLong(menu -> lastUsed.getOrDefault(menu.getName().toLowerCase(), 0L)));
+        int excess = current.size() - maxResident;
+        for (Menu menu : candidates) {
+            if (excess <= 0) {
+                break;
+            }
+            if (evict(menu)) {
+                excess--;
+            }
+        }
+    }
+    
+    /**
+     * Drop a resident menu unless someone is viewing it; its file stays indexed
+     */
+    private boolean evict(Menu menu) {
+        if (viewers.getViewerCount(menu.getName()) > 0) {
+            return false;
+        }
+        
+        String key = menu.getName().toLowerCase();
+        registry.updateAndGet(current -> current.get(key) == menu ? current.without(key) : current);
+        lastUsed.remove(key);
+        cacheEvictions.increment();
+        return true;
+    }
+    
+    /**
+     * Note that a menu lost a viewer, dropping it right away if menus are not cached
+     */
+    private void onViewerLeft(Menu menu) {
+        if (!lazyLoading) {
+            return;
+        }
+        lastUsed.put(menu.getName().toLowerCase(), System.currentTimeMillis());
+        
+        if (!plugin.getConfigManager().isCacheMenus()) {
+            evict(menu);
+        } else {
+            trimResidentMenus();
+        }
+    }
+    
+    /**
+     * Get hit, miss and eviction counters of resident menus.
+     * Hits are opens of resident menus, misses are menus parsed on first open.
+     */
+    public CacheStats getMenuCacheStats() {
+        return new CacheStats(cacheHits.sum(), cacheMisses.sum(), cacheEvictions.sum(), registry.get().size());
+    }
+    
+    /**
+     * Move everyone viewing a menu onto its new definition
+     */
+    private void migrateViewers(String menuName, Menu menu) {
+        for (MenuSession session : new ArrayList<>(viewers.getViewers(menuName))) {
+            if (session.getMenu() != menu) {
+                migrateSession(session, menu);
+            }
+        }
+    }
+    
+    /**
+     * Move a session onto a new definition of its menu.
+     * The inventory is kept and re-rendered in place, so only changed slots reach the client.
+     * It is only reopened when its size or title changed, and closed if the viewer lost access.
+     */
+    private void migrateSession(MenuSession session, Menu menu) {
+        Player player = session.getPlayer();
+        boolean wasScheduled = session.getMenu().getRefreshPeriod() > 0;
+        
+        if (!session.migrate(menu)) {
+            menu.open(player);
+            if (viewers.getSession(player.getUniqueId()) == session) {
+                // The new version refused to open, so do not leave the old one on screen
+                player.closeInventory();
+            }
+            return;
+        }
+        
+        if (!menu.hasPermission(session)) {
+            player.closeInventory();
+            return;
+        }
+        
+        try {
+            session.render();
+        } catch (Exception e) {
+            plugin.getLogger().warning("Error rendering menu " + menu.getName() + " for " + player.getName()
+                + ": " + e.getMessage());
+        }
+        if (!wasScheduled) {
+            // Sessions already on the wheel pick up the new refresh period by themselves
+            updateScheduler.schedule(session);
+        }
+    }
+    
+    /**
+     * Register parsed menus, open queued menus and record load statistics. Runs on the main thread.
+     */
+    private void finishLoading(int generation, List<ParsedMenu> parsed, long startNanos) {
+        if (generation != loadGeneration.get()) {
+            return; // A newer load has started since
+        }
+        
+        // Build the next generation to the side, readers keep using the current one meanwhile
+        MenuRegistry current = registry.get();
+        Map<String, Menu> menus = new HashMap<>();
+        List<MenuLoadStats> stats = new ArrayList<>(parsed.size());
+        int loadedCount = 0;
+        
+        for (ParsedMenu result : parsed) {
+            Menu menu = result.menu();
+            long prepareNanos = 0;
+            
+            if (menu != null) {
+                try {
+                    long prepareStart = System.nanoTime();
+                    menu.prepare();
+                    prepareNanos = System.nanoTime() - prepareStart;
                     
+                    menus.put(result.menuName().toLowerCase(), menu);
                     loadedCount++;
-                    plugin.getLogger().info("Loaded menu: " + menuName);
+                    plugin.getLogger().info("Loaded menu: " + result.menuName());
+                } catch (Exception e) {
+                    plugin.getLogger().severe("Error preparing menu " + result.menuName() + ": " + e.getMessage());
+                    menu = null;
+                }
+            }
+            if (menu == null) {
+                Menu previous = current.get(result.menuName());
+                if (previous != null) {
+                    // The file is still there but broken, keep serving what worked before
+                    menus.put(result.menuName().toLowerCase(), previous);
+                    plugin.getLogger().warning("Failed to load menu: " + result.menuName()
+                        + ", keeping the previous version");
                 } else {
-                    plugin.getLogger().warning("Failed to load menu: " + menuName);
+                    plugin.getLogger().warning("Failed to load menu: " + result.menuName());
                 }
-                
-            } catch (Exception e) {
-                plugin.getLogger().severe("Error loading menu file " + menuFile.getName() + ": " + e.getMessage());
-                e.printStackTrace();
+            }
+            
+            stats.add(new MenuLoadStats(result.file(), result.readNanos(), result.parseNanos(), prepareNanos,
+                menu != null ? menu.getItems().size() : 0, menu != null, result.cached()));
+        }
+        
+        // Publish the new generation in one step, then bring open sessions over to it
+        MenuRegistry next = new MenuRegistry(current.getVersion() + 1, menus);
+        registry.set(next);
+        this.loadStats = Collections.unmodifiableList(stats);
+        this.ready = true;
+        migrateSessions(next);
+        
+        double totalMillis = (System.nanoTime() - startNanos) / 1_000_000.0;
+        long cachedCount = stats.stream().filter(MenuLoadStats::cached).count();
+        plugin.getLogger().info(String.format("Loaded %d menu(s) in %.1f ms (%d from compiled cache)",
+            loadedCount, totalMillis, cachedCount));
+        if (lazyLoading) {
+            plugin.getLogger().info("Indexed " + menuIndex.size() + " menu file(s), others load on first open");
+        }
+        if (plugin.getConfigManager().isDebugMode()) {
+            for (MenuLoadStats fileStats : stats) {
+                plugin.getLogger().info(fileStats.toString());
+            }
+            logReadTimes(stats);
+        }
+        
+        // Open menus requested while loading
+        for (Map.Entry<UUID, String> pending : new ArrayList<>(pendingOpens.entrySet())) {
+            pendingOpens.remove(pending.getKey(), pending.getValue());
+            Player player = Bukkit.getPlayer(pending.getKey());
+            if (player != null && player.isOnline()) {
+                openMenu(player, pending.getValue());
+            }
+        }
+    }
+    
+    /**
+     * Move every open session onto its menu in a newly published generation, closing sessions
+     * whose menu no longer exists
+     */
+    private void migrateSessions(MenuRegistry next) {
+        int migrated = 0;
+        int closed = 0;
+        for (MenuSession session : new ArrayList<>(viewers.getAllSessions())) {
+            Menu menu = next.get(session.getMenu().getName());
+            if (menu == session.getMenu()) {
+                continue;
+            }
+            if (menu == null) {
+                session.getPlayer().closeInventory();
+                closed++;
+            } else {
+                migrateSession(session, menu);
+                migrated++;
             }
         }
         
-        plugin.getLogger().info("Loaded " + loadedCount + " menu(s)");
+        if (plugin.getConfigManager().isDebugMode() && migrated + closed > 0) {
+            plugin.getLogger().info("Migrated " + migrated + " open menu(s) to the new definitions, closed " + closed);
+        }
+    }
+    
+    /**
+     * Compare the average read time of files loaded from the compiled cache with those parsed from YAML
+     */
+    private void logReadTimes(List<MenuLoadStats> stats) {
+        long cachedNanos = 0;
+        long yamlNanos = 0;
+        int cachedFiles = 0;
+        int yamlFiles = 0;
+        for (MenuLoadStats fileStats : stats) {
+            if (fileStats.cached()) {
+                cachedNanos += fileStats.readNanos();
+                cachedFiles++;
+            } else {
+                yamlNanos += fileStats.readNanos();
+                yamlFiles++;
+            }
+        }
+        plugin.getLogger().info(String.format("Average read time: %.2f ms from cache (%d), %.2f ms from YAML (%d)",
+            cachedFiles > 0 ? cachedNanos / 1_000_000.0 / cachedFiles : 0.0, cachedFiles,
+            yamlFiles > 0 ? yamlNanos / 1_000_000.0 / yamlFiles : 0.0, yamlFiles));
+    }
+    
+    /**
+     * Check if menus have finished loading
+     */
+    public boolean isReady() {
+        return ready;
+    }
+    
+    /**
+     * Get the per-file timings of the last load
+     */
+    public List<MenuLoadStats> getLoadStats() {
+        return loadStats;
     }
     
     /**
      * Get a menu by name
      */
     public Menu getMenu(String name) {
-        return loadedMenus.get(name.toLowerCase());
+        return registry.get().get(name);
     }
     
     /**
-     * Get all loaded menu names
+     * Get all menu names, including menus that are not resident yet when loading lazily
      */
     public Set<String> getMenuNames() {
-        return new HashSet<>(loadedMenus.keySet());
+        return new HashSet<>(lazyLoading ? menuIndex.keySet() : registry.get().getNames());
     }
     
     /**
      * Open a menu for a player
      */
     public boolean openMenu(Player player, String menuName) {
+        return openMenu(player, menuName, null);
+    }
+    
+    /**
+     * Open a menu for a player and hand the new session to a callback once it is shown,
+     * which may be a few ticks later when the menu has to be loaded first
+     */
+    public boolean openMenu(Player player, String menuName, Consumer<MenuSession> onOpen) {
+        if (!ready) {
+            // Opened as soon as loading completes; a later request replaces an earlier one
+            pendingOpens.put(player.getUniqueId(), menuName);
+            plugin.getLanguageManager().sendPrefixedMessage(player, "menus.loading");
+            return true;
+        }
+        
         Menu menu = getMenu(menuName);
         if (menu == null) {
-            return false;
+            if (!lazyLoading || !menuIndex.containsKey(menuName.toLowerCase())) {
+                return false;
+            }
+            
+            // Parse on first open, then open it if the player is still around
+            loadLazily(menuName).thenAccept(loaded -> {
+                if (loaded != null && player.isOnline()) {
+                    open(loaded, player, onOpen);
+                }
+            });
+            return true;
         }
         
-        menu.open(player);
+        cacheHits.increment();
+        open(menu, player, onOpen);
         return true;
     }
     
+    private void open(Menu menu, Player player, Consumer<MenuSession> onOpen) {
+        menu.open(player);
+        if (onOpen == null) {
+            return;
+        }
+        
+        // Not opened if the player lacks permission for the menu
+        MenuSession session = viewers.getSession(player.getUniqueId());
+        if (session != null && session.getMenu() == menu && session.isActive()) {
+            onOpen.accept(session);
+        }
+    }
+    
     /**
      * Check if a menu exists
      */
     public boolean hasMenu(String name) {
-        return loadedMenus.containsKey(name.toLowerCase());
+        return registry.get().contains(name) || (lazyLoading && menuIndex.containsKey(name.toLowerCase()));
     }
     
     /**
-     * Close all open menus
+     * Register the session a player has just opened, replacing any previous one
      */
-    public void closeAllMenus() {
-        for (Player player : Bukkit.getOnlinePlayers()) {
-            if (player.getOpenInventory().getTopInventory().getHolder() instanceof Menu) {
-                player.closeInventory();
-            }
+    public void registerSession(MenuSession session) {
+        MenuSession previous = viewers.register(session);
+        if (previous != null) {
+            previous.markClosed();
+            onViewerLeft(previous.getMenu());
         }
+        lastUsed.put(session.getMenu().getName().toLowerCase(), System.currentTimeMillis());
+        updateScheduler.schedule(session);
     }
     
     /**
-     * Start update task for a menu
+     * Unregister a session if it is still the player's current one
      */
-    private void startUpdateTask(Menu menu) {
-        String menuName = menu.getName();
-        
-        BukkitTask task = new BukkitRunnable() {
-            @Override
-            public void run() {
-                try {
-                    menu.update();
-                } catch (Exception e) {
-                    plugin.getLogger().warning("Error updating menu " + menuName + ": " + e.getMessage());
-                }
-            }
-        }.runTaskTimer(plugin, menu.getUpdateInterval(), menu.getUpdateInterval());
-        
-        updateTasks.put(menuName, task);
+    public void unregisterSession(MenuSession session) {
+        if (viewers.unregister(session)) {
+            session.markClosed();
+            onViewerLeft(session.getMenu());
+        }
     }
     
     /**
-     * Stop all update tasks
+     * Remove whatever session a player has open
      */
-    private void stopAllUpdateTasks() {
-        for (BukkitTask task : updateTasks.values()) {
-            if (task != null && !task.isCancelled()) {
-                task.cancel();
-            }
+    public void removeSession(UUID playerId) {
+        pendingOpens.remove(playerId);
+        clickLimiter.forget(playerId);
+        searchPrompt.cancel(playerId);
+        MenuSession session = viewers.remove(playerId);
+        if (session != null) {
+            session.markClosed();
+            onViewerLeft(session.getMenu());
         }
-        updateTasks.clear();
     }
     
     /**
-     * Reload menus
+     * Get the session a player currently has open
      */
-    public void reload() {
-        closeAllMenus();
-        loadMenus();
+    public MenuSession getSession(Player player) {
+        return viewers.getSession(player.getUniqueId());
+    }
+    
+    /**
+     * Get all sessions currently viewing a menu
+     */
+    public Collection<MenuSession> getSessions(Menu menu) {
+        return viewers.getViewers(menu.getName());
+    }
+    
+    /**
+     * Re-check the permissions of a player's open menu, for example after their groups changed
+     */
+    public void invalidatePermissions(UUID playerId) {
+        MenuSession session = viewers.getSession(playerId);
+        if (session != null) {
+            session.invalidatePermissions();
+            session.render();
+        }
+    }
+    
+    /**
+     * Re-render a menu for everyone viewing it
+     */
+    public int refreshViewers(String menuName) {
+        int changed = 0;
+        for (MenuSession session : viewers.getViewers(menuName)) {
+            changed += session.render();
+        }
+        return changed;
+    }
+    
+    /**
+     * Close a menu for everyone viewing it
+     */
+    public void closeMenu(String menuName) {
+        for (MenuSession session : new ArrayList<>(viewers.getViewers(menuName))) {
+            session.getPlayer().closeInventory();
+        }
+    }
+    
+    /**
+     * Close all open menus
+     */
+    public void closeAllMenus() {
+        for (MenuSession session : viewers.clear()) {
+            session.markClosed();
+            session.getPlayer().closeInventory();
+        }
+    }
+    
+    /**
+     * Reload menus. Open menus stay open and are moved to the new definitions.
+     */
+    public CompletableFuture<Void> reload() {
+        return loadMenus();
     }
     
     /**
      * Shutdown manager
      */
     public void shutdown() {
+        // Discard any load still in progress
+        loadGeneration.incrementAndGet();
+        fileWatcher.stop();
+        pendingOpens.clear();
         closeAllMenus();
-        stopAllUpdateTasks();
-        loadedMenus.clear();
+        updateScheduler.stop();
+        registry.set(MenuRegistry.EMPTY);
+        lazyLoads.clear();
+        lastUsed.clear();
+        ready = false;
+    }
+    
+    /**
+     * Get the currently published menu generation
+     */
+    public MenuRegistry getRegistry() {
+        return registry.get();
+    }
+    
+    public ClickLimiter getClickLimiter() {
+        return clickLimiter;
+    }
+    
+    public SearchPrompt getSearchPrompt() {
+        return searchPrompt;
+    }
+    
+    public MenuUpdateScheduler getUpdateScheduler() {
+        return updateScheduler;
+    }
+    
+    public MenuViewerRegistry getViewerRegistry() {
+        return viewers;
+    }
+    
+    /**
+     * Result of reading and parsing one menu file off the main thread
+     */
+    private record ParsedMenu(String file, String menuName, Menu menu, long readNanos, long parseNanos,
+                              boolean cached) {
     }
 }
@@ -2,6 +2,8 @@ package dev.azuremyst.azuremenus.menu;
 
 import dev.azuremyst.azuremenus.AzureMenusPlugin;
 import dev.azuremyst.azuremenus.actions.Action;
+import dev.azuremyst.azuremenus.datasource.BindableItem;
+import dev.azuremyst.azuremenus.datasource.MenuDataSource;
 import dev.azuremyst.azuremenus.menu.items.MenuItem;
 import org.bukkit.Material;
 import org.bukkit.configuration.ConfigurationSection;
@@ -55,7 +57,7 @@ public class MenuParser {
                 for (String itemKey : itemsSection.getKeys(false)) {
                     ConfigurationSection itemSection = itemsSection.getConfigurationSection(itemKey);
                     if (itemSection != null) {
-                        MenuItem item = parseMenuItem(itemKey, itemSection);
+                        MenuItem item = parseMenuItem(itemKey, itemSection, updateInterval);
                         if (item != null) {
                             // Parse slot(s)
                             Object slotValue = itemSection.get("slot");
@@ -71,6 +73,16 @@ public class MenuParser {
                 }
             }
             
+            // Pagination owns its content slots, so fixed items placed there are dropped
+            Pagination pagination = null;
+            ConfigurationSection paginationSection = config.getConfigurationSection("pagination");
+            if (paginationSection != null) {
+                pagination = parsePagination(name, paginationSection, size);
+                if (pagination != null) {
+                    items.keySet().removeIf(pagination::isContentSlot);
+                }
+            }
+            
             // Additional properties
             Map<String, Object> properties = new HashMap<>();
             for (String key : config.getKeys(false)) {
@@ -80,7 +92,7 @@ public class MenuParser {
             }
             
             return new Menu(name, title, size, items, permissions, 
-                          updateInterval, sound, fillEmpty, fillItem, properties);
+                          updateInterval, sound, fillEmpty, fillItem, properties, pagination);
             
         } catch (Exception e) {
             plugin.getLogger().severe("Failed to parse menu '" + name + "': " + e.getMessage());
@@ -89,6 +101,85 @@ public class MenuParser {
         }
     }
     
+    /**
+     * Parse the content mask, content list and navigation buttons of a paginated menu
+     */
+    private Pagination parsePagination(String menuName, ConfigurationSection section, int size) {
+        // Content slots, in the order pages fill them
+        Set<Integer> contentSlots = new LinkedHashSet<>();
+        for (Integer slot : parseSlots(section.get("slots"))) {
+            if (slot >= 0 && slot < size) {
+                contentSlots.add(slot);
+            }
+        }
+        if (contentSlots.isEmpty()) {
+            plugin.getLogger().warning("Pagination of menu '" + menuName + "' has no content slots, ignoring it");
+            return null;
+        }
+        
+        // Content items, in configuration order; they do not refresh while open
+        List<MenuItem> content = new ArrayList<>();
+        ConfigurationSection contentSection = section.getConfigurationSection("content");
+        if (contentSection != null) {
+            for (String itemKey : contentSection.getKeys(false)) {
+                ConfigurationSection itemSection = contentSection.getConfigurationSection(itemKey);
+                if (itemSection != null) {
+                    MenuItem item = parseMenuItem(itemKey, itemSection, -1);
+                    if (item != null) {
+                        content.add(item);
+                    }
+                }
+            }
+        }
+        
+        // Navigation buttons
+        Map<Pagination.Navigation, Integer> navigationSlots = new EnumMap<>(Pagination.Navigation.class);
+        Map<Pagination.Navigation, MenuItem> navigationItems = new EnumMap<>(Pagination.Navigation.class);
+        ConfigurationSection navigationSection = section.getConfigurationSection("navigation");
+        if (navigationSection != null) {
+            for (Pagination.Navigation navigation : Pagination.Navigation.values()) {
+                ConfigurationSection buttonSection = navigationSection.getConfigurationSection(navigation.getKey());
+                if (buttonSection == null) {
+                    continue;
+                }
+                
+                int slot = buttonSection.getInt("slot", -1);
+                if (slot < 0 || slot >= size || contentSlots.contains(slot)) {
+                    plugin.getLogger().warning("Invalid slot for '" + navigation.getKey() 
+                        + "' button in menu '" + menuName + "': " + slot);
+                    continue;
+                }
+                
+                MenuItem item = parseMenuItem(navigation.getKey(), buttonSection, -1);
+                if (item != null) {
+                    navigationSlots.put(navigation, slot);
+                    navigationItems.put(navigation, item);
+                }
+            }
+        }
+        
+        int[] slots = contentSlots.stream().mapToInt(Integer::intValue).toArray();
+        
+        // Content from a data source replaces the content list, each entry bound to the item template
+        ConfigurationSection sourceSection = section.getConfigurationSection("source");
+        if (sourceSection != null) {
+            ConfigurationSection template = section.getConfigurationSection("template");
+            MenuDataSource source = plugin.getDataSourceRegistry()
+                .createSource(sourceSection.getString("type", ""), sourceSection.getValues(false));
+            if (template == null) {
+                plugin.getLogger().warning("Pagination of menu '" + menuName + "' has a source but no template, ignoring the source");
+            } else if (source != null) {
+                MenuItem prototype = parseMenuItem("template", template, -1);
+                if (prototype != null) {
+                    BindableItem item = new BindableItem(prototype, template.getString("material", "STONE"),
+                        parseActionConfigs(template));
+                    return new Pagination(slots, List.of(), navigationSlots, navigationItems, source, item::bind);
+                }
+            }
+        }
+        return new Pagination(slots, content, navigationSlots, navigationItems);
+    }
+    
     /**
      * Parse fill item
      */
@@ -96,7 +187,7 @@ public class MenuParser {
         String material = section.getString("material", "BLACK_STAINED_GLASS_PANE");
         String name = section.getString("name", " ");
         
-        return new MenuItem(
+        MenuItem fillItem = new MenuItem(
             "fill", 
             parseMaterial(material),
             1, 
@@ -110,14 +201,20 @@ public class MenuParser {
             Set.of(ItemFlag.HIDE_ATTRIBUTES),
             null,
             null,
-            new HashMap<>()
+            new HashMap<>(),
+            -1,
+            -1,
+            false
         );
+        classifyItem(fillItem);
+        return fillItem;
     }
     
     /**
-     * Parse menu item from configuration section
+     * Parse menu item from configuration section.
+     * Items without their own refresh interval use the menu's update interval.
      */
-    private MenuItem parseMenuItem(String id, ConfigurationSection section) {
+    private MenuItem parseMenuItem(String id, ConfigurationSection section, int defaultRefresh) {
         try {
             // Material
             String materialStr = section.getString("material", "STONE");
@@ -141,6 +238,13 @@ public class MenuParser {
             // Condition
             String condition = section.getString("condition", null);
             
+            // Refresh interval in ticks
+            int refreshInterval = section.getInt("refresh", defaultRefresh);
+            
+            // Click limits: own minimum time between clicks in milliseconds, and double-click events
+            long clickCooldown = section.getLong("click-cooldown", -1);
+            boolean allowDoubleClick = section.getBoolean("double-click", false);
+            
             // Visual properties
             boolean enchanted = section.getBoolean("enchanted", false);
             Set<ItemFlag> itemFlags = parseItemFlags(section.getStringList("item-flags"));
@@ -160,9 +264,12 @@ public class MenuParser {
                 }
             }
             
-            return new MenuItem(id, material, amount, durability, name, lore, actions,
-                              permissions, condition, enchanted, itemFlags, 
-                              skullTexture, skullOwner, properties);
+            MenuItem item = new MenuItem(id, material, amount, durability, name, lore, actions,
+                                         permissions, condition, enchanted, itemFlags, 
+                                         skullTexture, skullOwner, properties, refreshInterval,
+                                         clickCooldown, allowDoubleClick);
+            classifyItem(item);
+            return item;
             
         } catch (Exception e) {
             plugin.getLogger().warning("Failed to parse menu item '" + id + "': " + e.getMessage());
@@ -170,11 +277,32 @@ public class MenuParser {
         }
     }
     
+    /**
+     * Classify which fields of an item vary per player and prebuild everything else
+     */
+    private void classifyItem(MenuItem item) {
+        item.compile(item.findDynamicFields());
+    }
+    
     /**
      * Parse actions from configuration section
      */
     private List<Action> parseActions(ConfigurationSection section) {
         List<Action> actions = new ArrayList<>();
+        for (Map<String, Object> actionConfig : parseActionConfigs(section)) {
+            Action action = plugin.getActionRegistry().createAction((String) actionConfig.get("type"), actionConfig);
+            if (action != null) {
+                actions.add(action);
+            }
+        }
+        return actions;
+    }
+    
+    /**
+     * Collect the configurations of all actions of an item, each with its "type"
+     */
+    private List<Map<String, Object>> parseActionConfigs(ConfigurationSection section) {
+        List<Map<String, Object>> configs = new ArrayList<>();
         
         // Check for actions list
         if (section.contains("actions")) {
@@ -182,12 +310,8 @@ public class MenuParser {
             for (Map<?, ?> actionMap : actionsList) {
                 @SuppressWarnings("unchecked")
                 Map<String, Object> actionConfig = (Map<String, Object>) actionMap;
-                String type = (String) actionConfig.get("type");
-                if (type != null) {
-                    Action action = plugin.getActionRegistry().createAction(type, actionConfig);
-                    if (action != null) {
-                        actions.add(action);
-                    }
+                if (actionConfig.get("type") instanceof String) {
+                    configs.add(actionConfig);
                 }
             }
         }
@@ -195,23 +319,19 @@ public class MenuParser {
         // Legacy support - direct action properties
         if (section.contains("command")) {
             Map<String, Object> actionConfig = new HashMap<>();
+            actionConfig.put("type", "command");
             actionConfig.put("commands", List.of(section.getString("command")));
-            Action action = plugin.getActionRegistry().createAction("command", actionConfig);
-            if (action != null) {
-                actions.add(action);
-            }
+            configs.add(actionConfig);
         }
         
         if (section.contains("message")) {
             Map<String, Object> actionConfig = new HashMap<>();
+            actionConfig.put("type", "message");
             actionConfig.put("message", section.getString("message"));
-            Action action = plugin.getActionRegistry().createAction("message", actionConfig);
-            if (action != null) {
-                actions.add(action);
-            }
+            configs.add(actionConfig);
         }
         
-        return actions;
+        return configs;
     }
     
     /**
@@ -250,11 +370,8 @@ public class MenuParser {
                 if (item instanceof Integer) {
                     slots.add((Integer) item);
                 } else {
-                    try {
-                        slots.add(Integer.parseInt(item.toString()));
-                    } catch (NumberFormatException e) {
-                        plugin.getLogger().warning("Invalid slot number in list: " + item);
-                    }
+                    // Entries can be ranges too
+                    slots.addAll(parseSlots(item.toString()));
                 }
             }
         }
@@ -266,6 +383,10 @@ public class MenuParser {
      * Parse material from string
      */
     private Material parseMaterial(String materialStr) {
+        if (materialStr.indexOf('{') >= 0) {
+            // Bound per entry in data source templates
+            return Material.STONE;
+        }
         try {
             return Material.valueOf(materialStr.toUpperCase());
         } catch (IllegalArgumentException e) {
@@ -294,7 +415,7 @@ public class MenuParser {
      */
     private boolean isReservedKey(String key) {
         return Set.of("title", "size", "update-interval", "sound", "permissions", 
-                     "permission", "fill", "items").contains(key);
+                     "permission", "fill", "items", "pagination").contains(key);
     }
     
     /**
@@ -303,6 +424,7 @@ public class MenuParser {
     private boolean isReservedItemKey(String key) {
         return Set.of("slot", "material", "amount", "durability", "name", "lore", 
                      "permissions", "permission", "condition", "enchanted", "item-flags",
-                     "skull-texture", "skull-owner", "actions", "command", "message").contains(key);
+                     "skull-texture", "skull-owner", "actions", "command", "message", 
+                     "refresh", "click-cooldown", "double-click").contains(key);
     }
 }
@@ -0,0 +1,75 @@
+package dev.azuremyst.azuremenus.menu;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * One immutable generation of loaded menus, keyed by lower-case name.
+ * Loads build a new generation off to the side and publish it with a single swap,
+ * so lookups never see an empty or half-loaded set.
+ */
+public final class MenuRegistry {
+    
+    static final MenuRegistry EMPTY = new MenuRegistry(0, Map.of());
+    
+    private final int version;
+    private final Map<String, Menu> menus;
+    
+    MenuRegistry(int version, Map<String, Menu> menus) {
+        this.version = version;
+        this.menus = Map.copyOf(menus);
+    }
+    
+    /**
+     * Get a menu by name, ignoring case
+     */
+    public Menu get(String name) {
+        return menus.get(name.toLowerCase());
+    }
+    
+    public boolean contains(String name) {
+        return menus.containsKey(name.toLowerCase());
+    }
+    
+    /**
+     * Get the lower-case names of all menus
+     */
+    public Set<String> getNames() {
+        return menus.keySet();
+    }
+    
+    public Collection<Menu> getMenus() {
+        return menus.values();
+    }
+    
+    public int size() {
+        return menus.size();
+    }
+    
+    /**
+     * Get the number of generations published before this one
+     */
+    public int getVersion() {
+        return version;
+    }
+    
+    /**
+     * Build the next generation with one menu added or replaced
+     */
+    MenuRegistry with(String name, Menu menu) {
+        Map<String, Menu> next = new HashMap<>(menus);
+        next.put(name.toLowerCase(), menu);
+        return new MenuRegistry(version + 1, next);
+    }
+    
+    /**
+     * Build the next generation with one menu removed
+     */
+    MenuRegistry without(String name) {
+        Map<String, Menu> next = new HashMap<>(menus);
+        next.remove(name.toLowerCase());
+        return new MenuRegistry(version + 1, next);
+    }
+}
@@ -0,0 +1,134 @@
+package dev.azuremyst.azuremenus.menu;
+
+import dev.azuremyst.azuremenus.AzureMenusPlugin;
+import dev.azuremyst.azuremenus.menu.session.MenuSession;
+import dev.azuremyst.azuremenus.utils.TimingWheel;
+import org.bukkit.Bukkit;
+import org.bukkit.scheduler.BukkitRunnable;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Single scheduler driving refreshes of every open menu session.
+ * Only sessions with refreshing items are scheduled, viewers sharing an interval are spread
+ * across tick phases, and work beyond the per-tick time budget is deferred to the next tick.
+ */
+public class MenuUpdateScheduler {
+    
+    private final AzureMenusPlugin plugin;
+    private final TimingWheel<MenuSession> wheel;
+    private final ArrayDeque<MenuSession> backlog;
+    private final Map<Integer, Integer> phaseCounters;
+    
+    private BukkitTask task;
+    private long tickBudgetNanos;
+    private long deferredCount;
+    
+    public MenuUpdateScheduler(AzureMenusPlugin plugin) {
+        this.plugin = plugin;
+        this.wheel = new TimingWheel<>(512);
+        this.backlog = new ArrayDeque<>();
+        this.phaseCounters = new HashMap<>();
+    }
+    
+    /**
+     * Start ticking, reading the time budget from the configuration
+     */
+    public void start() {
+        double budgetMillis = plugin.getConfigManager().getUpdateTickBudget();
+        this.tickBudgetNanos = (long) (budgetMillis * 1_000_000L);
+        
+        if (task != null) {
+            return;
+        }
+        
+        task = new BukkitRunnable() {
+            @Override
+            public void run() {
+                tick();
+            }
+        }.runTaskTimer(plugin, 1L, 1L);
+    }
+    
+    /**
+     * Stop ticking and forget all scheduled sessions
+     */
+    public void stop() {
+        if (task != null) {
+            task.cancel();
+            task = null;
+        }
+        wheel.clear();
+        backlog.clear();
+        phaseCounters.clear();
+    }
+    
+    /**
+     * Schedule a freshly opened session if its menu has refreshing items
+     */
+    public void schedule(MenuSession session) {
+        int period = session.getMenu().getRefreshPeriod();
+        if (period <= 0) {
+            return;
+        }
+        
+        // Round-robin phase so viewers of the same interval do not all wake on the same tick
+        int phase = phaseCounters.merge(period, 1, Integer::sum) % period;
+        wheel.schedule(session, period + phase);
+    }
+    
+    /**
+     * Process one server tick
+     */
+    private void tick() {
+        wheel.advance(backlog::add);
+        if (backlog.isEmpty()) {
+            return;
+        }
+        
+        int currentTick = Bukkit.getCurrentTick();
+        long deadline = System.nanoTime() + tickBudgetNanos;
+        
+        while (!backlog.isEmpty()) {
+            MenuSession session = backlog.poll();
+            if (!session.isActive()) {
+                continue; // Closed since it was scheduled
+            }
+            
+            try {
+                session.refreshDue(currentTick);
+            } catch (Exception e) {
+                plugin.getLogger().warning("Error updating menu " + session.getMenu().getName() 
+                    + " for " + session.getPlayer().getName() + ": " + e.getMessage());
+            }
+            // The period can change when the session is moved to a reloaded menu
+            int period = session.getMenu().getRefreshPeriod();
+            if (period > 0) {
+                wheel.schedule(session, period);
+            }
+            
+            if (tickBudgetNanos > 0 && System.nanoTime() >= deadline) {
+                // Leave the rest for the next tick
+                deferredCount += backlog.size();
+                break;
+            }
+        }
+    }
+    
+    /**
+     * Get the number of scheduled sessions
+     */
+    public int getScheduledCount() {
+        return wheel.size() + backlog.size();
+    }
+    
+    /**
+     * Get how many session updates were pushed to a later tick by the time budget
+     */
+    public long getDeferredCount() {
+        return deferredCount;
+    }
+}
@@ -0,0 +1,287 @@
+package dev.azuremyst.azuremenus.menu;
+
+import dev.azuremyst.azuremenus.AzureMenusPlugin;
+import dev.azuremyst.azuremenus.actions.ActionExecutor;
+import dev.azuremyst.azuremenus.actions.ExecutionMode;
+import dev.azuremyst.azuremenus.datasource.DataEntry;
+import dev.azuremyst.azuremenus.datasource.DataPage;
+import dev.azuremyst.azuremenus.datasource.MenuDataSource;
+import dev.azuremyst.azuremenus.menu.items.MenuItem;
+import org.bukkit.entity.Player;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+
+/**
+ * Content of a paginated menu, laid out page by page over a mask of content slots.
+ * Content is either a fixed list of items or entries of a {@link MenuDataSource} bound to an item template.
+ * Content items are only built when a page showing them is rendered or prefetched;
+ * which page a viewer is on is kept by their session.
+ */
+public class Pagination {
+    
+    /**
+     * Navigation buttons, each shown only while its target page differs from the current one
+     */
+    public enum Navigation {
+        FIRST("first"),
+        PREVIOUS("previous"),
+        NEXT("next"),
+        LAST("last");
+        
+        private final String key;
+        
+        Navigation(String key) {
+            this.key = key;
+        }
+        
+        /**
+         * Get the configuration key of this button
+         */
+        public String getKey() {
+            return key;
+        }
+        
+        /**
+         * Get the page this button leads to from the given page, or -1 if it leads nowhere
+         */
+        public int getTarget(int page, int pageCount) {
+            return switch (this) {
+                case FIRST -> page > 0 ? 0 : -1;
+                case PREVIOUS -> page > 0 ? page - 1 : -1;
+                case NEXT -> page + 1 < pageCount ? page + 1 : -1;
+                case LAST -> page + 1 < pageCount ? pageCount - 1 : -1;
+            };
+        }
+    }
+    
+    private final int[] contentSlots;
+    private final List<MenuItem> content;
+    private final Map<Navigation, MenuItem> navigationItems;
+    private final MenuDataSource source;
+    private final Function<DataEntry, MenuItem> itemBinder;
+    private final SearchIndex searchIndex;
+    
+    // Lookups by slot: position in the content mask, and the navigation button placed there
+    private final int[] contentIndex;
+    private final Navigation[] navigationBySlot;
+    private final int[] pageSlots;
+    
+    // Pages whose content templates were already built, only touched on the main thread
+    private final BitSet prefetched;
+    
+    public Pagination(int[] contentSlots, List<MenuItem> content,
+                      Map<Navigation, Integer> navigationSlots, Map<Navigation, MenuItem> navigationItems) {
+        this(contentSlots, content, navigationSlots, navigationItems, null, null);
+    }
+    
+    /**
+     * @param source source of the content entries, or null for the fixed content list
+     * @param itemBinder turns a source entry into its item
+     */
+    public Pagination(int[] contentSlots, List<MenuItem> content,
+                      Map<Navigation, Integer> navigationSlots, Map<Navigation, MenuItem> navigationItems,
+                      MenuDataSource source, Function<DataEntry, MenuItem> itemBinder) {
+        if (contentSlots.length == 0) {
+            throw new IllegalArgumentException("Pagination needs at least one content slot");
+        }
+        this.contentSlots = contentSlots.clone();
+        this.content = List.copyOf(content);
+        this.source = source;
+        this.itemBinder = itemBinder;
+        this.searchIndex = source == null ? SearchIndex.build(this.content) : null;
+        this.navigationItems = new EnumMap<>(Navigation.class);
+        
+        int maxSlot = Arrays.stream(contentSlots).max().orElse(0);
+        for (int slot : navigationSlots.values()) {
+            maxSlot = Math.max(maxSlot, slot);
+        }
+        this.contentIndex = new int[maxSlot + 1];
+        this.navigationBySlot = new Navigation[maxSlot + 1];
+        Arrays.fill(contentIndex, -1);
+        for (int i = 0; i < this.contentSlots.length; i++) {
+            contentIndex[this.contentSlots[i]] = i;
+        }
+        
+        List<Integer> slots = new ArrayList<>();
+        for (int slot : this.contentSlots) {
+            slots.add(slot);
+        }
+        for (Map.Entry<Navigation, Integer> entry : navigationSlots.entrySet()) {
+            MenuItem item = navigationItems.get(entry.getKey());
+            int slot = entry.getValue();
+            if (item == null || contentIndex[slot] >= 0 || navigationBySlot[slot] != null) {
+                continue;
+            }
+            this.navigationItems.put(entry.getKey(), item);
+            navigationBySlot[slot] = entry.getKey();
+            slots.add(slot);
+        }
+        this.pageSlots = slots.stream().mapToInt(Integer::intValue).toArray();
+        this.prefetched = new BitSet();
+    }
+    
+    /**
+     * Get the number of content items shown per page
+     */
+    public int getPageSize() {
+        return contentSlots.length;
+    }
+    
+    /**
+     * Get the number of pages of the fixed content list, at least one even without content
+     */
+    public int getPageCount() {
+        return pageCount(content.size());
+    }
+    
+    private int pageCount(int entries) {
+        return Math.max(1, (entries + contentSlots.length - 1) / contentSlots.length);
+    }
+    
+    /**
+     * Get the content items of the fixed list shown on a page
+     */
+    public List<MenuItem> getItems(int page) {
+        return getPage(content, page).items();
+    }
+    
+    /**
+     * Lay a list of items, such as search results, out into pages and get one of them
+     */
+    public PageContent getPage(List<MenuItem> items, int page) {
+        int from = page * contentSlots.length;
+        List<MenuItem> pageItems = page < 0 || from >= items.size()
+            ? List.of()
+            : items.subList(from, Math.min(items.size(), from + contentSlots.length));
+        return new PageContent(pageItems, pageCount(items.size()));
+    }
+    
+    /**
+     * Find the content items matching a query, or null if the content comes from a data source
+     */
+    public List<MenuItem> search(String query) {
+        return searchIndex != null ? searchIndex.search(query) : null;
+    }
+    
+    public boolean isSearchable() {
+        return searchIndex != null;
+    }
+    
+    /**
+     * Fetch a page of content from the data source, completing on the main thread.
+     * Entries are fetched on the thread the source asks for and bound to items before returning.
+     */
+    public CompletableFuture<PageContent> fetch(Player viewer, int page) {
+        ActionExecutor executor = AzureMenusPlugin.getInstance().getActionExecutor();
+        int offset = page * contentSlots.length;
+        
+        return executor.supply(source.getExecutionMode(), () -> {
+                try {
+                    return source.fetch(viewer, offset, contentSlots.length);
+                } catch (Exception e) {
+                    throw new CompletionException(e);
+                }
+            })
+            .thenApply(dataPage -> toContent(dataPage, page))
+            .thenCompose(content -> executor.supply(ExecutionMode.MAIN, () -> content));
+    }
+    
+    private PageContent toContent(DataPage dataPage, int page) {
+        List<MenuItem> items = new ArrayList<>(dataPage.entries().size());
+        for (DataEntry entry : dataPage.entries()) {
+            MenuItem item = itemBinder.apply(entry);
+            if (item != null) {
+                items.add(item);
+            }
+        }
+        
+        // Without a total, the next page is known to exist only while the source reports more entries
+        int pageCount = dataPage.totalHint() >= 0
+            ? pageCount(dataPage.totalHint())
+            : dataPage.hasMore() ? page + 2 : page + 1;
+        return new PageContent(items, pageCount);
+    }
+    
+    /**
+     * Get the position of a slot in the content mask, or -1 if it is not a content slot
+     */
+    public int getContentIndex(int slot) {
+        return slot >= 0 && slot < contentIndex.length ? contentIndex[slot] : -1;
+    }
+    
+    public boolean isContentSlot(int slot) {
+        return getContentIndex(slot) >= 0;
+    }
+    
+    /**
+     * Get the navigation button placed in a slot, or null if there is none
+     */
+    public Navigation getNavigation(int slot) {
+        return slot >= 0 && slot < navigationBySlot.length ? navigationBySlot[slot] : null;
+    }
+    
+    public MenuItem getNavigationItem(Navigation navigation) {
+        return navigationItems.get(navigation);
+    }
+    
+    /**
+     * Build the content templates of a page ahead of a viewer turning to it. Must run on the main thread.
+     */
+    public void prefetch(int page) {
+        if (page < 0 || page >= getPageCount() || prefetched.get(page)) {
+            return;
+        }
+        prefetched.set(page);
+        
+        for (MenuItem item : getItems(page)) {
+            if (!item.hasTemplate()) {
+                item.buildTemplate();
+            }
+        }
+    }
+    
+    public boolean isPrefetched(int page) {
+        return prefetched.get(page);
+    }
+    
+    /**
+     * Get the slots that change when the page changes: the content mask and the navigation buttons
+     */
+    public int[] getPageSlots() {
+        return pageSlots;
+    }
+    
+    public int[] getContentSlots() {
+        return contentSlots;
+    }
+    
+    public List<MenuItem> getContent() {
+        return content;
+    }
+    
+    /**
+     * Get the source of the content entries, or null if the content is a fixed list
+     */
+    public MenuDataSource getSource() {
+        return source;
+    }
+    
+    public Map<Navigation, MenuItem> getNavigationItems() {
+        return Collections.unmodifiableMap(navigationItems);
+    }
+    
+    /**
+     * Items of one page and the number of pages known when it was fetched
+     */
+    public record PageContent(List<MenuItem> items, int pageCount) {
+    }
+}
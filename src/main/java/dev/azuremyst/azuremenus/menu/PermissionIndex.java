@@ -0,0 +1,54 @@
+package dev.azuremyst.azuremenus.menu;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The permissions a menu references, collected once at parse time and numbered
+ * so a viewer's permissions fit into a bitset
+ */
+public final class PermissionIndex {
+    
+    private final String[] nodes;
+    private final Map<String, Integer> positions;
+    
+    private PermissionIndex(Set<String> nodes) {
+        this.nodes = nodes.toArray(new String[0]);
+        this.positions = new HashMap<>(this.nodes.length * 2);
+        for (int i = 0; i < this.nodes.length; i++) {
+            positions.put(this.nodes[i], i);
+        }
+    }
+    
+    /**
+     * Build an index over the given permission nodes, ignoring blanks and duplicates
+     */
+    public static PermissionIndex of(Collection<String> nodes) {
+        Set<String> unique = new LinkedHashSet<>();
+        for (String node : nodes) {
+            if (node != null && !node.isEmpty()) {
+                unique.add(node);
+            }
+        }
+        return new PermissionIndex(unique);
+    }
+    
+    /**
+     * Get the bit position of a permission, or -1 if the menu never references it
+     */
+    public int indexOf(String node) {
+        Integer position = positions.get(node);
+        return position != null ? position : -1;
+    }
+    
+    public String get(int index) {
+        return nodes[index];
+    }
+    
+    public int size() {
+        return nodes.length;
+    }
+}
@@ -0,0 +1,211 @@
+package dev.azuremyst.azuremenus.menu;
+
+import dev.azuremyst.azuremenus.menu.items.MenuItem;
+import dev.azuremyst.azuremenus.utils.ColorUtil;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Text index over the content items of a paginated menu, built once when the menu is loaded.
+ * Names, lore and custom properties are stripped of formatting and lower-cased. Terms of three or more
+ * characters are looked up through trigram posting lists, shorter terms as word prefixes in a sorted word list.
+ * A query matches the items containing all of its terms, in content order.
+ */
+public class SearchIndex {
+    
+    private static final int MAX_QUERY_LENGTH = 64;
+    
+    private final List<MenuItem> items;
+    private final String[] texts;
+    
+    // Trigram of three chars packed into a long, to the ascending positions of the items containing it
+    private final Map<Long, int[]> trigrams;
+    
+    // Distinct words of every item, sorted, with the position of the item each came from
+    private final String[] words;
+    private final int[] wordItems;
+    
+    private SearchIndex(List<MenuItem> items, String[] texts, Map<Long, int[]> trigrams,
+                        String[] words, int[] wordItems) {
+        this.items = items;
+        this.texts = texts;
+        this.trigrams = trigrams;
+        this.words = words;
+        this.wordItems = wordItems;
+    }
+    
+    /**
+     * Build the index of a content list
+     */
+    public static SearchIndex build(List<MenuItem> items) {
+        String[] texts = new String[items.size()];
+        Map<Long, List<Integer>> postings = new HashMap<>();
+        List<WordEntry> wordEntries = new ArrayList<>();
+        
+        for (int i = 0; i < texts.length; i++) {
+            String text = indexText(items.get(i));
+            texts[i] = text;
+            
+            // Items are added in order, so each posting list stays sorted and only the last entry can repeat
+            for (int j = 0; j + 3 <= text.length(); j++) {
+                List<Integer> posting = postings.computeIfAbsent(trigram(text, j), key -> new ArrayList<>());
+                if (posting.isEmpty() || posting.get(posting.size() - 1) != i) {
+                    posting.add(i);
+                }
+            }
+            
+            Set<String> itemWords = new HashSet<>();
+            for (String word : text.split("[^\\p{L}\\p{N}]+")) {
+                if (!word.isEmpty() && itemWords.add(word)) {
+                    wordEntries.add(new WordEntry(word, i));
+                }
+            }
+        }
+        
+        Map<Long, int[]> trigrams = new HashMap<>(postings.size() * 2);
+        for (Map.Entry<Long, List<Integer>> entry : postings.entrySet()) {
+            trigrams.put(entry.getKey(), entry.getValue().stream().mapToInt(Integer::intValue).toArray());
+        }
+        
+        wordEntries.sort(Comparator.comparing(WordEntry::word).thenComparingInt(WordEntry::item));
+        String[] words = new String[wordEntries.size()];
+        int[] wordItems = new int[wordEntries.size()];
+        for (int i = 0; i < words.length; i++) {
+            words[i] = wordEntries.get(i).word();
+            wordItems[i] = wordEntries.get(i).item();
+        }
+        
+        return new SearchIndex(List.copyOf(items), texts, trigrams, words, wordItems);
+    }
+    
+    /**
+     * Collect the searchable text of an item: name, lore and custom property values
+     */
+    private static String indexText(MenuItem item) {
+        StringBuilder text = new StringBuilder(ColorUtil.stripColor(item.getName()));
+        for (String line : item.getLore()) {
+            text.append('\n').append(ColorUtil.stripColor(line));
+        }
+        for (Object value : item.getProperties().values()) {
+            appendValue(text, value);
+        }
+        return text.toString().toLowerCase(Locale.ROOT);
+    }
+    
+    private static void appendValue(StringBuilder text, Object value) {
+        if (value instanceof List<?> list) {
+            list.forEach(element -> appendValue(text, element));
+        } else if (value instanceof Map<?, ?> map) {
+            map.values().forEach(element -> appendValue(text, element));
+        } else if (value instanceof String || value instanceof Number) {
+            text.append('\n').append(ColorUtil.stripColor(value.toString()));
+        }
+    }
+    
+    private static long trigram(String text, int start) {
+        return ((long) text.charAt(start) << 32) | ((long) text.charAt(start + 1) << 16) | text.charAt(start + 2);
+    }
+    
+    /**
+     * Find the items matching every whitespace-separated term of a query; a blank query matches everything
+     */
+    public List<MenuItem> search(String query) {
+        String normalized = query.toLowerCase(Locale.ROOT).trim();
+        if (normalized.length() > MAX_QUERY_LENGTH) {
+            normalized = normalized.substring(0, MAX_QUERY_LENGTH);
+        }
+        if (normalized.isEmpty()) {
+            return items;
+        }
+        
+        BitSet result = null;
+        for (String term : normalized.split("\\s+")) {
+            BitSet matches = term.length() >= 3 ? matchSubstring(term) : matchPrefix(term);
+            if (result == null) {
+                result = matches;
+            } else {
+                result.and(matches);
+            }
+            if (result.isEmpty()) {
+                return List.of();
+            }
+        }
+        
+        List<MenuItem> found = new ArrayList<>(result.cardinality());
+        for (int i = result.nextSetBit(0); i >= 0; i = result.nextSetBit(i + 1)) {
+            found.add(items.get(i));
+        }
+        return found;
+    }
+    
+    /**
+     * Find the items whose text contains a term, walking the shortest posting list of its trigrams
+     */
+    private BitSet matchSubstring(String term) {
+        BitSet matches = new BitSet(texts.length);
+        
+        int count = term.length() - 2;
+        int[][] lists = new int[count][];
+        for (int j = 0; j < count; j++) {
+            lists[j] = trigrams.get(trigram(term, j));
+            if (lists[j] == null) {
+                return matches;
+            }
+        }
+        Arrays.sort(lists, Comparator.comparingInt(list -> list.length));
+        
+        for (int candidate : lists[0]) {
+            boolean inAll = true;
+            for (int j = 1; j < lists.length && inAll; j++) {
+                inAll = Arrays.binarySearch(lists[j], candidate) >= 0;
+            }
+            // Trigrams can all be present without being adjacent, so confirm against the text
+            if (inAll && texts[candidate].contains(term)) {
+                matches.set(candidate);
+            }
+        }
+        return matches;
+    }
+    
+    /**
+     * Find the items with a word starting with a term
+     */
+    private BitSet matchPrefix(String term) {
+        BitSet matches = new BitSet(texts.length);
+        
+        int low = 0;
+        int high = words.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (words[middle].compareTo(term) < 0) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        
+        for (int i = low; i < words.length && words[i].startsWith(term); i++) {
+            matches.set(wordItems[i]);
+        }
+        return matches;
+    }
+    
+    /**
+     * Get the number of indexed items
+     */
+    public int size() {
+        return texts.length;
+    }
+    
+    private record WordEntry(String word, int item) {
+    }
+}
@@ -0,0 +1,82 @@
+package dev.azuremyst.azuremenus.menu.condition;
+
+import org.bukkit.entity.Player;
+
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * A condition compiled once into an expression tree.
+ * Supports numeric and string comparisons, arithmetic, &&, || and !, and has-permission:node terms.
+ * Evaluation short-circuits, resolves placeholders only when reached and checks cheap clauses first.
+ */
+public final class Condition {
+    
+    private final String source;
+    private final Expression expression;
+    private final Set<String> permissions;
+    private final Set<String> placeholders;
+    
+    private Condition(String source, Expression expression) {
+        this.source = source;
+        this.expression = expression;
+        
+        Set<String> permissions = new LinkedHashSet<>();
+        Set<String> placeholders = new LinkedHashSet<>();
+        expression.collect(permissions, placeholders);
+        this.permissions = Collections.unmodifiableSet(permissions);
+        this.placeholders = Collections.unmodifiableSet(placeholders);
+    }
+    
+    /**
+     * Compile a condition string
+     */
+    public static Condition compile(String source) throws ConditionParseException {
+        return new Condition(source, ConditionParser.parse(source));
+    }
+    
+    /**
+     * Evaluate this condition for a player
+     */
+    public boolean test(Player player) {
+        return test(ConditionContext.of(player));
+    }
+    
+    /**
+     * Evaluate this condition in a context
+     */
+    public boolean test(ConditionContext context) {
+        return Expression.toBoolean(expression.evaluate(context));
+    }
+    
+    /**
+     * Check if this condition has the same outcome for every player
+     */
+    public boolean isConstant() {
+        return expression.isConstant();
+    }
+    
+    /**
+     * Get the permissions referenced by has-permission terms
+     */
+    public Set<String> getPermissions() {
+        return permissions;
+    }
+    
+    /**
+     * Get the identifiers of all placeholders this condition may resolve
+     */
+    public Set<String> getPlaceholders() {
+        return placeholders;
+    }
+    
+    public String getSource() {
+        return source;
+    }
+    
+    @Override
+    public String toString() {
+        return source;
+    }
+}
@@ -0,0 +1,36 @@
+package dev.azuremyst.azuremenus.menu.condition;
+
+import dev.azuremyst.azuremenus.AzureMenusPlugin;
+import org.bukkit.entity.Player;
+
+/**
+ * What a condition can ask about the player it is evaluated for
+ */
+public interface ConditionContext {
+    
+    /**
+     * Get the player the condition is evaluated for
+     */
+    Player getPlayer();
+    
+    /**
+     * Check if the player has a permission
+     */
+    default boolean hasPermission(String permission) {
+        return getPlayer().hasPermission(permission);
+    }
+    
+    /**
+     * Resolve a placeholder identifier (without '%' signs) for the player
+     */
+    default String resolve(String identifier) {
+        return AzureMenusPlugin.getInstance().getPlaceholderService().resolve(getPlayer(), identifier);
+    }
+    
+    /**
+     * Create a context that asks the player and the placeholder service directly
+     */
+    static ConditionContext of(Player player) {
+        return () -> player;
+    }
+}
@@ -0,0 +1,21 @@
+package dev.azuremyst.azuremenus.menu.condition;
+
+/**
+ * Thrown when a condition expression cannot be parsed
+ */
+public class ConditionParseException extends Exception {
+    
+    private final int position;
+    
+    public ConditionParseException(String message, int position) {
+        super(message + " at position " + (position + 1));
+        this.position = position;
+    }
+    
+    /**
+     * Get the zero-based position in the source where parsing failed
+     */
+    public int getPosition() {
+        return position;
+    }
+}
@@ -0,0 +1,261 @@
+package dev.azuremyst.azuremenus.menu.condition;
+
+import dev.azuremyst.azuremenus.placeholders.PlaceholderTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Recursive descent parser turning a condition string into an expression tree.
+ *
+ * Grammar, lowest precedence first:
+ * or := and ('||' and)*
+ * and := not ('&&' not)*
+ * not := '!' not | comparison
+ * comparison := sum (('==' | '=' | '!=' | '>' | '>=' | '<' | '<=') sum)?
+ * sum := product (('+' | '-') product)*
+ * product := unary (('*' | '/' | '%') unary)*
+ * unary := '-' unary | primary
+ * primary := number | 'string' | "string" | %placeholder% | has-permission:node
+ *            | true | false | word | '(' or ')'
+ */
+final class ConditionParser {
+    
+    private static final String PERMISSION_PREFIX = "has-permission:";
+    
+    private final String source;
+    private int position;
+    
+    private ConditionParser(String source) {
+        this.source = source;
+    }
+    
+    /**
+     * Parse a condition into a constant-folded expression tree
+     */
+    static Expression parse(String source) throws ConditionParseException {
+        ConditionParser parser = new ConditionParser(source);
+        Expression expression = parser.parseOr();
+        parser.skipWhitespace();
+        if (parser.position < source.length()) {
+            throw new ConditionParseException("Unexpected '" + source.charAt(parser.position) + "'", parser.position);
+        }
+        return expression;
+    }
+    
+    private Expression parseOr() throws ConditionParseException {
+        List<Expression> operands = new ArrayList<>();
+        operands.add(parseAnd());
+        while (match("||")) {
+            operands.add(parseAnd());
+        }
+        return operands.size() == 1 ? operands.get(0) : fold(Expression.Logical.of(false, operands));
+    }
+    
+    private Expression parseAnd() throws ConditionParseException {
+        List<Expression> operands = new ArrayList<>();
+        operands.add(parseNot());
+        while (match("&&")) {
+            operands.add(parseNot());
+        }
+        return operands.size() == 1 ? operands.get(0) : fold(Expression.Logical.of(true, operands));
+    }
+    
+    private Expression parseNot() throws ConditionParseException {
+        skipWhitespace();
+        if (peek() == '!' && peek(1) != '=') {
+            position++;
+            return fold(new Expression.Not(parseNot()));
+        }
+        return parseComparison();
+    }
+    
+    private Expression parseComparison() throws ConditionParseException {
+        Expression left = parseSum();
+        skipWhitespace();
+        
+        String operator = null;
+        for (String candidate : new String[]{"==", "!=", ">=", "<=", ">", "<", "="}) {
+            if (match(candidate)) {
+                operator = candidate.equals("=") ? "==" : candidate;
+                break;
+            }
+        }
+        if (operator == null) {
+            return left;
+        }
+        return fold(new Expression.Comparison(operator, left, parseSum()));
+    }
+    
+    private Expression parseSum() throws ConditionParseException {
+        Expression left = parseProduct();
+        while (true) {
+            skipWhitespace();
+            char c = peek();
+            if (c != '+' && c != '-') {
+                return left;
+            }
+            position++;
+            left = fold(new Expression.Arithmetic(c, left, parseProduct()));
+        }
+    }
+    
+    private Expression parseProduct() throws ConditionParseException {
+        Expression left = parseUnary();
+        while (true) {
+            skipWhitespace();
+            char c = peek();
+            if ((c != '*' && c != '/' && c != '%') || (c == '%' && placeholderEnd() > 0)) {
+                return left;
+            }
+            position++;
+            left = fold(new Expression.Arithmetic(c, left, parseUnary()));
+        }
+    }
+    
+    private Expression parseUnary() throws ConditionParseException {
+        skipWhitespace();
+        if (peek() == '-') {
+            position++;
+            return fold(new Expression.Negate(parseUnary()));
+        }
+        return parsePrimary();
+    }
+    
+    private Expression parsePrimary() throws ConditionParseException {
+        skipWhitespace();
+        if (position >= source.length()) {
+            throw new ConditionParseException("Unexpected end of condition", position);
+        }
+        
+        char c = peek();
+        int start = position;
+        
+        // Parenthesised expression
+        if (c == '(') {
+            position++;
+            Expression inner = parseOr();
+            skipWhitespace();
+            if (peek() != ')') {
+                throw new ConditionParseException("Expected ')'", position);
+            }
+            position++;
+            return inner;
+        }
+        
+        // Quoted string, which may contain placeholders
+        if (c == '\'' || c == '"') {
+            int end = source.indexOf(c, position + 1);
+            if (end < 0) {
+                throw new ConditionParseException("Unterminated string", start);
+            }
+            position = end + 1;
+            PlaceholderTemplate template = PlaceholderTemplate.compile(source.substring(start + 1, end));
+            return template.isConstant()
+                ? new Expression.Literal(template.getSource())
+                : new Expression.Template(template);
+        }
+        
+        // Placeholder
+        if (c == '%') {
+            int end = placeholderEnd();
+            if (end < 0) {
+                throw new ConditionParseException("Unterminated placeholder", start);
+            }
+            position = end + 1;
+            return new Expression.Placeholder(source.substring(start + 1, end));
+        }
+        
+        // Number
+        if (Character.isDigit(c) || (c == '.' && Character.isDigit(peek(1)))) {
+            while (Character.isDigit(peek()) || peek() == '.') {
+                position++;
+            }
+            try {
+                return new Expression.Literal(Double.parseDouble(source.substring(start, position)));
+            } catch (NumberFormatException e) {
+                throw new ConditionParseException("Invalid number", start);
+            }
+        }
+        
+        // Keywords, permission terms and bare words
+        if (Character.isLetter(c) || c == '_') {
+            while (isWordChar(peek())) {
+                position++;
+            }
+            String word = source.substring(start, position);
+            
+            if (word.regionMatches(true, 0, PERMISSION_PREFIX, 0, PERMISSION_PREFIX.length())) {
+                // Permission nodes may also contain wildcards
+                while (isWordChar(peek()) || peek() == '*') {
+                    position++;
+                }
+                String node = source.substring(start + PERMISSION_PREFIX.length(), position);
+                if (node.isEmpty()) {
+                    throw new ConditionParseException("Missing permission node", position);
+                }
+                return new Expression.Permission(node);
+            }
+            if (word.equalsIgnoreCase("true") || word.equalsIgnoreCase("false")) {
+                return new Expression.Literal(Boolean.parseBoolean(word));
+            }
+            return new Expression.Literal(word);
+        }
+        
+        throw new ConditionParseException("Unexpected '" + c + "'", start);
+    }
+    
+    /**
+     * Replace a node whose value never changes by its value
+     */
+    private static Expression fold(Expression expression) {
+        if (expression.isConstant() && !(expression instanceof Expression.Literal)) {
+            return new Expression.Literal(expression.evaluate(null));
+        }
+        return expression;
+    }
+    
+    /**
+     * Get the index of the '%' closing a placeholder starting at the current position, or -1
+     */
+    private int placeholderEnd() {
+        int end = source.indexOf('%', position + 1);
+        if (end <= position + 1) {
+            return -1;
+        }
+        for (int i = position + 1; i < end; i++) {
+            if (Character.isWhitespace(source.charAt(i))) {
+                return -1;
+            }
+        }
+        return end;
+    }
+    
+    private static boolean isWordChar(char c) {
+        return Character.isLetterOrDigit(c) || c == '_' || c == '.' || c == ':' || c == '-';
+    }
+    
+    private boolean match(String token) {
+        skipWhitespace();
+        if (source.startsWith(token, position)) {
+            position += token.length();
+            return true;
+        }
+        return false;
+    }
+    
+    private void skipWhitespace() {
+        while (position < source.length() && Character.isWhitespace(source.charAt(position))) {
+            position++;
+        }
+    }
+    
+    private char peek() {
+        return peek(0);
+    }
+    
+    private char peek(int offset) {
+        int index = position + offset;
+        return index < source.length() ? source.charAt(index) : '\0';
+    }
+}
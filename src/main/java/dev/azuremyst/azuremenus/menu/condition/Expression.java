@@ -0,0 +1,348 @@
+package dev.azuremyst.azuremenus.menu.condition;
+
+import dev.azuremyst.azuremenus.placeholders.PlaceholderTemplate;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Node of a compiled condition expression.
+ * Values are Boolean, Double or String and are coerced on use.
+ */
+interface Expression {
+    
+    // Relative evaluation costs used to order operands of && and ||
+    int COST_LITERAL = 0;
+    int COST_PERMISSION = 2;
+    int COST_PLACEHOLDER = 10;
+    
+    /**
+     * Evaluate this node
+     */
+    Object evaluate(ConditionContext context);
+    
+    /**
+     * Get the estimated cost of evaluating this node
+     */
+    int cost();
+    
+    /**
+     * Check if this node evaluates to the same value for every player
+     */
+    default boolean isConstant() {
+        return false;
+    }
+    
+    /**
+     * Collect the permissions and placeholder identifiers this node may query
+     */
+    default void collect(Set<String> permissions, Set<String> placeholders) {
+    }
+    
+    // Coercion
+    
+    static boolean toBoolean(Object value) {
+        if (value instanceof Boolean bool) {
+            return bool;
+        }
+        if (value instanceof Double number) {
+            return number != 0 && !number.isNaN();
+        }
+        // Same truthiness as the original string conditions
+        String text = value.toString();
+        return !text.isEmpty() && !text.equalsIgnoreCase("false") && !text.equals("0");
+    }
+    
+    /**
+     * Convert a value to a number, or null if it is not numeric
+     */
+    static Double toNumber(Object value) {
+        if (value instanceof Double number) {
+            return number;
+        }
+        if (value instanceof Boolean) {
+            return null;
+        }
+        String text = value.toString().trim();
+        if (text.isEmpty()) {
+            return null;
+        }
+        // Placeholder values are often formatted with grouping separators
+        if (text.indexOf(',') >= 0) {
+            text = text.replace(",", "");
+        }
+        char first = text.charAt(0);
+        if (!Character.isDigit(first) && first != '-' && first != '+' && first != '.') {
+            return null;
+        }
+        try {
+            return Double.parseDouble(text);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+    
+    static String toText(Object value) {
+        if (value instanceof Double number && number == Math.rint(number) && !number.isInfinite()) {
+            return Long.toString(number.longValue());
+        }
+        return value.toString();
+    }
+    
+    // Nodes
+    
+    record Literal(Object value) implements Expression {
+        @Override
+        public Object evaluate(ConditionContext context) {
+            return value;
+        }
+        
+        @Override
+        public int cost() {
+            return COST_LITERAL;
+        }
+        
+        @Override
+        public boolean isConstant() {
+            return true;
+        }
+    }
+    
+    record Placeholder(String identifier) implements Expression {
+        @Override
+        public Object evaluate(ConditionContext context) {
+            return context.resolve(identifier);
+        }
+        
+        @Override
+        public int cost() {
+            return COST_PLACEHOLDER;
+        }
+        
+        @Override
+        public void collect(Set<String> permissions, Set<String> placeholders) {
+            placeholders.add(identifier);
+        }
+    }
+    
+    record Template(PlaceholderTemplate template) implements Expression {
+        @Override
+        public Object evaluate(ConditionContext context) {
+            return template.apply(context::resolve);
+        }
+        
+        @Override
+        public int cost() {
+            return COST_PLACEHOLDER * template.getIdentifiers().size();
+        }
+        
+        @Override
+        public void collect(Set<String> permissions, Set<String> placeholders) {
+            placeholders.addAll(template.getIdentifiers());
+        }
+    }
+    
+    record Permission(String node) implements Expression {
+        @Override
+        public Object evaluate(ConditionContext context) {
+            return context.hasPermission(node);
+        }
+        
+        @Override
+        public int cost() {
+            return COST_PERMISSION;
+        }
+        
+        @Override
+        public void collect(Set<String> permissions, Set<String> placeholders) {
+            permissions.add(node);
+        }
+    }
+    
+    record Not(Expression operand) implements Expression {
+        @Override
+        public Object evaluate(ConditionContext context) {
+            return !toBoolean(operand.evaluate(context));
+        }
+        
+        @Override
+        public int cost() {
+            return operand.cost();
+        }
+        
+        @Override
+        public boolean isConstant() {
+            return operand.isConstant();
+        }
+        
+        @Override
+        public void collect(Set<String> permissions, Set<String> placeholders) {
+            operand.collect(permissions, placeholders);
+        }
+    }
+    
+    record Negate(Expression operand) implements Expression {
+        @Override
+        public Object evaluate(ConditionContext context) {
+            Double number = toNumber(operand.evaluate(context));
+            return number != null ? -number : Double.NaN;
+        }
+        
+        @Override
+        public int cost() {
+            return operand.cost();
+        }
+        
+        @Override
+        public boolean isConstant() {
+            return operand.isConstant();
+        }
+        
+        @Override
+        public void collect(Set<String> permissions, Set<String> placeholders) {
+            operand.collect(permissions, placeholders);
+        }
+    }
+    
+    /**
+     * Short-circuit && or || over operands ordered cheapest first
+     */
+    record Logical(boolean and, Expression[] operands) implements Expression {
+        
+        static Logical of(boolean and, List<Expression> operands) {
+            // Operands are side-effect free, so evaluation order does not change the result
+            List<Expression> sorted = new ArrayList<>(operands);
+            sorted.sort(Comparator.comparingInt(Expression::cost));
+            return new Logical(and, sorted.toArray(new Expression[0]));
+        }
+        
+        @Override
+        public Object evaluate(ConditionContext context) {
+            for (Expression operand : operands) {
+                if (toBoolean(operand.evaluate(context)) != and) {
+                    return !and;
+                }
+            }
+            return and;
+        }
+        
+        @Override
+        public int cost() {
+            int cost = 0;
+            for (Expression operand : operands) {
+                cost += operand.cost();
+            }
+            return cost;
+        }
+        
+        @Override
+        public boolean isConstant() {
+            for (Expression operand : operands) {
+                if (!operand.isConstant()) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        
+        @Override
+        public void collect(Set<String> permissions, Set<String> placeholders) {
+            for (Expression operand : operands) {
+                operand.collect(permissions, placeholders);
+            }
+        }
+    }
+    
+    record Comparison(String operator, Expression left, Expression right) implements Expression {
+        @Override
+        public Object evaluate(ConditionContext context) {
+            Object leftValue = left.evaluate(context);
+            Object rightValue = right.evaluate(context);
+            
+            int result;
+            Double leftNumber = toNumber(leftValue);
+            Double rightNumber = toNumber(rightValue);
+            if (leftNumber != null && rightNumber != null) {
+                if (leftNumber.isNaN() || rightNumber.isNaN()) {
+                    return operator.equals("!=");
+                }
+                result = Double.compare(leftNumber, rightNumber);
+            } else if (leftValue instanceof Boolean || rightValue instanceof Boolean) {
+                result = toBoolean(leftValue) == toBoolean(rightValue) ? 0 : 1;
+                if (!operator.equals("==") && !operator.equals("!=")) {
+                    return false;
+                }
+            } else {
+                result = toText(leftValue).compareToIgnoreCase(toText(rightValue));
+            }
+            
+            return switch (operator) {
+                case "==" -> result == 0;
+                case "!=" -> result != 0;
+                case ">" -> result > 0;
+                case ">=" -> result >= 0;
+                case "<" -> result < 0;
+                case "<=" -> result <= 0;
+                default -> false;
+            };
+        }
+        
+        @Override
+        public int cost() {
+            return left.cost() + right.cost() + 1;
+        }
+        
+        @Override
+        public boolean isConstant() {
+            return left.isConstant() && right.isConstant();
+        }
+        
+        @Override
+        public void collect(Set<String> permissions, Set<String> placeholders) {
+            left.collect(permissions, placeholders);
+            right.collect(permissions, placeholders);
+        }
+    }
+    
+    record Arithmetic(char operator, Expression left, Expression right) implements Expression {
+        @Override
+        public Object evaluate(ConditionContext context) {
+            Object leftValue = left.evaluate(context);
+            Object rightValue = right.evaluate(context);
+            
+            Double leftNumber = toNumber(leftValue);
+            Double rightNumber = toNumber(rightValue);
+            if (leftNumber == null || rightNumber == null) {
+                // '+' doubles as string concatenation
+                return operator == '+' ? toText(leftValue) + toText(rightValue) : Double.NaN;
+            }
+            
+            return switch (operator) {
+                case '+' -> leftNumber + rightNumber;
+                case '-' -> leftNumber - rightNumber;
+                case '*' -> leftNumber * rightNumber;
+                case '/' -> rightNumber == 0 ? Double.NaN : leftNumber / rightNumber;
+                case '%' -> rightNumber == 0 ? Double.NaN : leftNumber % rightNumber;
+                default -> Double.NaN;
+            };
+        }
+        
+        @Override
+        public int cost() {
+            return left.cost() + right.cost() + 1;
+        }
+        
+        @Override
+        public boolean isConstant() {
+            return left.isConstant() && right.isConstant();
+        }
+        
+        @Override
+        public void collect(Set<String> permissions, Set<String> placeholders) {
+            left.collect(permissions, placeholders);
+            right.collect(permissions, placeholders);
+        }
+    }
+}
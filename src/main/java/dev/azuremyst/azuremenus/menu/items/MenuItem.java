@@ -1,11 +1,14 @@
 package dev.azuremyst.azuremenus.menu.items;
 
+import com.destroystokyo.paper.profile.PlayerProfile;
 import dev.azuremyst.azuremenus.AzureMenusPlugin;
 import dev.azuremyst.azuremenus.actions.Action;
+import dev.azuremyst.azuremenus.menu.condition.Condition;
+import dev.azuremyst.azuremenus.menu.condition.ConditionContext;
+import dev.azuremyst.azuremenus.menu.condition.ConditionParseException;
+import dev.azuremyst.azuremenus.placeholders.PlaceholderTemplate;
 import dev.azuremyst.azuremenus.utils.ColorUtil;
-import me.clip.placeholderapi.PlaceholderAPI;
 import net.kyori.adventure.text.Component;
-import org.bukkit.Bukkit;
 import org.bukkit.Material;
 import org.bukkit.entity.Player;
 import org.bukkit.event.inventory.ClickType;
@@ -35,12 +38,29 @@ public class MenuItem {
     private final String skullTexture;
     private final String skullOwner;
     private final Map<String, Object> properties;
+    private final int refreshInterval;
+    private final long clickCooldown;
+    private final boolean allowDoubleClick;
+    
+    // Placeholder templates, compiled once when the item is parsed
+    private final PlaceholderTemplate nameTemplate;
+    private final List<PlaceholderTemplate> loreTemplates;
+    private final PlaceholderTemplate skullOwnerTemplate;
+    private final PlaceholderTemplate conditionTemplate;
+    private final Condition compiledCondition;
+    
+    // Render plan, prepared once by compile()
+    private Set<DynamicField> dynamicFields;
+    private Component[] staticLore;
+    private ItemStack template;
+    private boolean awaitingOwnerProfile;
     
     public MenuItem(String id, Material material, int amount, short durability,
                    String name, List<String> lore, List<Action> actions,
                    Set<String> permissions, String condition, boolean enchanted,
                    Set<ItemFlag> itemFlags, String skullTexture, String skullOwner,
-                   Map<String, Object> properties) {
+                   Map<String, Object> properties, int refreshInterval,
+                   long clickCooldown, boolean allowDoubleClick) {
         this.id = id;
         this.material = material != null ? material : Material.STONE;
         this.amount = Math.max(1, Math.min(64, amount));
@@ -55,17 +75,106 @@ public class MenuItem {
         this.skullTexture = skullTexture;
         this.skullOwner = skullOwner;
         this.properties = properties != null ? properties : new HashMap<>();
+        this.refreshInterval = refreshInterval;
+        this.clickCooldown = clickCooldown;
+        this.allowDoubleClick = allowDoubleClick;
+        
+        this.nameTemplate = PlaceholderTemplate.compile(this.name);
+        this.loreTemplates = this.lore.stream().map(PlaceholderTemplate::compile).toList();
+        this.skullOwnerTemplate = PlaceholderTemplate.compile(skullOwner);
+        this.conditionTemplate = PlaceholderTemplate.compile(condition);
+        this.compiledCondition = compileCondition(id, condition);
+        this.dynamicFields = EnumSet.allOf(DynamicField.class);
+    }
+    
+    /**
+     * Copy an item with other content, keeping its condition and every other setting
+     */
+    private MenuItem(MenuItem item, Material material, PlaceholderTemplate nameTemplate,
+                     List<PlaceholderTemplate> loreTemplates, PlaceholderTemplate skullOwnerTemplate,
+                     String skullTexture, List<Action> actions) {
+        this.id = item.id;
+        this.material = material != null ? material : item.material;
+        this.amount = item.amount;
+        this.durability = item.durability;
+        this.name = nameTemplate.getSource();
+        this.lore = loreTemplates.stream().map(PlaceholderTemplate::getSource).toList();
+        this.actions = actions;
+        this.permissions = item.permissions;
+        this.condition = item.condition;
+        this.enchanted = item.enchanted;
+        this.itemFlags = item.itemFlags;
+        this.skullTexture = skullTexture;
+        this.skullOwner = item.skullOwner != null ? skullOwnerTemplate.getSource() : null;
+        this.properties = item.properties;
+        this.refreshInterval = item.refreshInterval;
+        this.clickCooldown = item.clickCooldown;
+        this.allowDoubleClick = item.allowDoubleClick;
+        
+        this.nameTemplate = nameTemplate;
+        this.loreTemplates = loreTemplates;
+        this.skullOwnerTemplate = skullOwnerTemplate;
+        this.conditionTemplate = item.conditionTemplate;
+        this.compiledCondition = item.compiledCondition;
+        this.dynamicFields = EnumSet.allOf(DynamicField.class);
+    }
+    
+    /**
+     * Create a copy of this item with its content replaced, as bound from a data source entry.
+     * The templates are used as given, so text bound into them is never scanned for placeholders again.
+     * The copy is compiled and ready to render.
+     */
+    public MenuItem withContent(Material material, PlaceholderTemplate nameTemplate,
+                                List<PlaceholderTemplate> loreTemplates, PlaceholderTemplate skullOwnerTemplate,
+                                String skullTexture, List<Action> actions) {
+        MenuItem item = new MenuItem(this, material, nameTemplate, loreTemplates, skullOwnerTemplate,
+            skullTexture, actions);
+        item.compile(item.findDynamicFields());
+        return item;
+    }
+    
+    /**
+     * Compile the condition expression, or return null to use the legacy truthiness check
+     */
+    private static Condition compileCondition(String id, String condition) {
+        if (condition == null || condition.isEmpty()) {
+            return null;
+        }
+        
+        try {
+            return Condition.compile(condition);
+        } catch (ConditionParseException e) {
+            AzureMenusPlugin.getInstance().getLogger().warning("Invalid condition '" + condition 
+                + "' in item '" + id + "': " + e.getMessage() + ", falling back to a plain value check");
+            return null;
+        }
+    }
+    
+    /**
+     * Fields of the rendered item that can differ between players or refreshes
+     */
+    public enum DynamicField {
+        NAME,
+        LORE,
+        SKULL_OWNER
     }
     
     /**
      * Check if player can view this item
      */
     public boolean canView(Player player) {
+        return canView(ConditionContext.of(player));
+    }
+    
+    /**
+     * Check if the viewer of a context can view this item
+     */
+    public boolean canView(ConditionContext context) {
         // Check permissions
         if (!permissions.isEmpty()) {
             boolean hasPermission = false;
             for (String permission : permissions) {
-                if (player.hasPermission(permission)) {
+                if (context.hasPermission(permission)) {
                     hasPermission = true;
                     break;
                 }
@@ -75,30 +184,93 @@ public class MenuItem {
         
         // Check condition
         if (condition != null && !condition.isEmpty()) {
-            return evaluateCondition(player, condition);
+            return evaluateCondition(context);
         }
         
         return true;
     }
     
     /**
-     * Evaluate a condition string
+     * Evaluate the condition of this item
      */
-    private boolean evaluateCondition(Player player, String condition) {
-        // Replace placeholders
-        String processedCondition = replacePlaceholders(player, condition);
+    private boolean evaluateCondition(ConditionContext context) {
+        if (compiledCondition != null) {
+            return compiledCondition.test(context);
+        }
         
-        // Simple condition evaluation (can be expanded later)
-        // For now, just check if it's not "false" or "0"
+        // Legacy check: the condition holds unless it resolves to "false", "0" or nothing
+        String processedCondition = conditionTemplate.apply(context::resolve);
         return !processedCondition.equalsIgnoreCase("false") && 
                !processedCondition.equals("0") &&
                !processedCondition.isEmpty();
     }
     
     /**
-     * Build ItemStack for this menu item
+     * Find the fields whose templates contain placeholders, so they vary per player
      */
-    public ItemStack buildItemStack(Player player) {
+    public Set<DynamicField> findDynamicFields() {
+        Set<DynamicField> dynamicFields = EnumSet.noneOf(DynamicField.class);
+        
+        if (!nameTemplate.isConstant()) {
+            dynamicFields.add(DynamicField.NAME);
+        }
+        
+        for (PlaceholderTemplate loreLine : loreTemplates) {
+            if (!loreLine.isConstant()) {
+                dynamicFields.add(DynamicField.LORE);
+                break;
+            }
+        }
+        
+        if (!skullOwnerTemplate.isConstant()) {
+            dynamicFields.add(DynamicField.SKULL_OWNER);
+        }
+        return dynamicFields;
+    }
+    
+    /**
+     * Prepare the render plan for this item.
+     * Everything outside the given dynamic fields is later built once into a template by {@link #buildTemplate()}.
+     * Does not touch the Bukkit API, so it is safe to call while menus are parsed off the main thread.
+     */
+    public void compile(Set<DynamicField> dynamicFields) {
+        this.dynamicFields = dynamicFields.isEmpty() 
+            ? EnumSet.noneOf(DynamicField.class) 
+            : EnumSet.copyOf(dynamicFields);
+        
+        // Lore lines without placeholders are parsed once, even when other lines vary
+        this.staticLore = new Component[lore.size()];
+        for (int i = 0; i < lore.size(); i++) {
+            if (!this.dynamicFields.contains(DynamicField.LORE) || loreTemplates.get(i).isConstant()) {
+                staticLore[i] = ColorUtil.parseComponent(lore.get(i));
+            }
+        }
+        
+        this.template = null;
+    }
+    
+    /**
+     * Build the shared template from the render plan. Must run on the main thread.
+     */
+    public void buildTemplate() {
+        if (staticLore == null) {
+            // Not compiled by the parser, treat every field as dynamic
+            compile(EnumSet.allOf(DynamicField.class));
+        }
+        this.template = createTemplate();
+    }
+    
+    /**
+     * Check if the shared template has been built
+     */
+    public boolean hasTemplate() {
+        return template != null;
+    }
+    
+    /**
+     * Build the template holding every field that does not vary per player
+     */
+    private ItemStack createTemplate() {
         ItemStack item = new ItemStack(material, amount);
         
         // Set durability if specified
@@ -109,25 +281,18 @@ public class MenuItem {
         ItemMeta meta = item.getItemMeta();
         if (meta != null) {
             // Set display name
-            if (!name.isEmpty()) {
-                String processedName = replacePlaceholders(player, name);
-                Component nameComponent = ColorUtil.parseComponent(processedName);
-                meta.displayName(nameComponent);
+            if (!name.isEmpty() && !dynamicFields.contains(DynamicField.NAME)) {
+                meta.displayName(ColorUtil.parseComponent(name));
             }
             
             // Set lore
-            if (!lore.isEmpty()) {
-                List<Component> loreComponents = new ArrayList<>();
-                for (String loreLine : lore) {
-                    String processedLine = replacePlaceholders(player, loreLine);
-                    loreComponents.add(ColorUtil.parseComponent(processedLine));
-                }
-                meta.lore(loreComponents);
+            if (!lore.isEmpty() && !dynamicFields.contains(DynamicField.LORE)) {
+                meta.lore(Arrays.asList(staticLore));
             }
             
             // Add enchantment effect
             if (enchanted) {
-                item.addUnsafeEnchantment(org.bukkit.enchantments.Enchantment.UNBREAKING, 1);
+                meta.addEnchant(org.bukkit.enchantments.Enchantment.UNBREAKING, 1, true);
                 meta.addItemFlags(ItemFlag.HIDE_ENCHANTS);
             }
             
@@ -137,15 +302,20 @@ public class MenuItem {
             }
             
             // Handle skull meta
+            awaitingOwnerProfile = false;
             if (meta instanceof SkullMeta skullMeta) {
-                if (skullOwner != null && !skullOwner.isEmpty()) {
-                    String processedOwner = replacePlaceholders(player, skullOwner);
-                    skullMeta.setOwner(processedOwner);
-                }
+                SkullProfileCache skulls = AzureMenusPlugin.getInstance().getSkullProfileCache();
                 
+                // A configured texture wins over the owner, whose profile is then not looked up at all
                 if (skullTexture != null && !skullTexture.isEmpty()) {
-                    // Set skull texture (base64)
-                    setSkullTexture(skullMeta, skullTexture);
+                    skullMeta.setPlayerProfile(skulls.getTextureProfile(skullTexture));
+                } else if (skullOwner != null && !skullOwner.isEmpty() && !dynamicFields.contains(DynamicField.SKULL_OWNER)) {
+                    // Shows the placeholder head until the owner's profile has been looked up
+                    PlayerProfile profile = skulls.getOwnerProfile(skullOwner);
+                    if (profile != null) {
+                        skullMeta.setPlayerProfile(profile);
+                    }
+                    awaitingOwnerProfile = !skulls.hasOwnerProfile(skullOwner);
                 }
             }
             
@@ -156,52 +326,90 @@ public class MenuItem {
     }
     
     /**
-     * Set skull texture using base64
+     * Build ItemStack for this menu item.
+     * Static items return their shared template, which must not be modified by the caller.
      */
-    private void setSkullTexture(SkullMeta meta, String texture) {
-        try {
-            // This is a simplified version - full implementation would use reflection
-            // or a library like NBT-API for setting custom skull textures
-            AzureMenusPlugin.getInstance().getLogger().info(
-                "Skull texture setting not fully implemented: " + texture);
-        } catch (Exception e) {
-            AzureMenusPlugin.getInstance().getLogger().warning(
-                "Failed to set skull texture: " + e.getMessage());
+    public ItemStack buildItemStack(Player player) {
+        if (template == null) {
+            buildTemplate();
+        }
+        
+        // Bake the owner's head into the template once its profile has arrived
+        if (awaitingOwnerProfile && AzureMenusPlugin.getInstance().getSkullProfileCache().hasOwnerProfile(skullOwner)) {
+            template = createTemplate();
+        }
+        
+        if (dynamicFields.isEmpty()) {
+            return template;
+        }
+        
+        ItemStack item = template.clone();
+        ItemMeta meta = item.getItemMeta();
+        if (meta == null) {
+            return item;
         }
-    }
-    
-    /**
-     * Replace placeholders in a string
-     */
-    private String replacePlaceholders(Player player, String text) {
-        if (text == null || text.isEmpty()) return text;
         
-        // Replace internal placeholders
-        text = text.replace("%player_name%", player.getName());
-        text = text.replace("%player_displayname%", player.getDisplayName());
-        text = text.replace("%server_online%", String.valueOf(Bukkit.getOnlinePlayers().size()));
-        text = text.replace("%server_max%", String.valueOf(Bukkit.getMaxPlayers()));
+        // Set display name
+        if (!name.isEmpty() && dynamicFields.contains(DynamicField.NAME)) {
+            String processedName = nameTemplate.apply(player);
+            meta.displayName(ColorUtil.parseComponent(processedName));
+        }
+        
+        // Set lore, re-parsing only the lines with placeholders
+        if (!lore.isEmpty() && dynamicFields.contains(DynamicField.LORE)) {
+            List<Component> loreComponents = new ArrayList<>(lore.size());
+            for (int i = 0; i < lore.size(); i++) {
+                if (staticLore[i] != null) {
+                    loreComponents.add(staticLore[i]);
+                } else {
+                    String processedLine = loreTemplates.get(i).apply(player);
+                    loreComponents.add(ColorUtil.parseComponent(processedLine));
+                }
+            }
+            meta.lore(loreComponents);
+        }
         
-        // Use PlaceholderAPI if available
-        if (Bukkit.getPluginManager().getPlugin("PlaceholderAPI") != null) {
-            text = PlaceholderAPI.setPlaceholders(player, text);
+        // Set skull owner, unless a fixed texture takes precedence
+        if (meta instanceof SkullMeta skullMeta && dynamicFields.contains(DynamicField.SKULL_OWNER)
+                && skullOwner != null && !skullOwner.isEmpty()
+                && (skullTexture == null || skullTexture.isEmpty())) {
+            String owner = skullOwnerTemplate.apply(player);
+            if (!owner.isEmpty()) {
+                PlayerProfile profile = AzureMenusPlugin.getInstance().getSkullProfileCache().getOwnerProfile(owner);
+                if (profile != null) {
+                    skullMeta.setPlayerProfile(profile);
+                }
+            }
         }
         
-        return text;
+        item.setItemMeta(meta);
+        return item;
     }
     
     /**
      * Handle click on this item
      */
     public void handleClick(Player player, ClickType clickType) {
-        if (!canView(player)) return;
+        handleClick(ConditionContext.of(player), clickType);
+    }
+    
+    /**
+     * Handle click on this item, answering permission checks from the context
+     */
+    public void handleClick(ConditionContext context, ClickType clickType) {
+        if (!canView(context)) return;
         
-        // Execute actions
+        // Checks use the session's state, so they all run now, before any action moves off the main thread
+        List<Action> allowed = new ArrayList<>(actions.size());
         for (Action action : actions) {
-            if (action.canExecute(player, clickType)) {
-                action.execute(player, clickType);
+            if (action.canExecute(context, clickType)) {
+                allowed.add(action);
             }
         }
+        
+        if (!allowed.isEmpty()) {
+            AzureMenusPlugin.getInstance().getActionExecutor().execute(allowed, context.getPlayer(), clickType);
+        }
     }
     
     // Getters
@@ -241,6 +449,13 @@ public class MenuItem {
         return condition;
     }
     
+    /**
+     * Get the compiled condition, or null if there is none or it failed to parse
+     */
+    public Condition getCompiledCondition() {
+        return compiledCondition;
+    }
+    
     public boolean isEnchanted() {
         return enchanted;
     }
@@ -260,4 +475,62 @@ public class MenuItem {
     public Map<String, Object> getProperties() {
         return properties;
     }
+    
+    public PlaceholderTemplate getNameTemplate() {
+        return nameTemplate;
+    }
+    
+    public List<PlaceholderTemplate> getLoreTemplates() {
+        return loreTemplates;
+    }
+    
+    public PlaceholderTemplate getSkullOwnerTemplate() {
+        return skullOwnerTemplate;
+    }
+    
+    /**
+     * Get how often this item is re-rendered while open, in ticks (0 or less keeps it frozen)
+     */
+    public int getRefreshInterval() {
+        return refreshInterval;
+    }
+    
+    /**
+     * Get the minimum time between two clicks on this item in milliseconds, or -1 for the global setting
+     */
+    public long getClickCooldown() {
+        return clickCooldown;
+    }
+    
+    /**
+     * Check if DOUBLE_CLICK events reach this item's actions instead of being dropped as duplicates
+     */
+    public boolean isDoubleClickAllowed() {
+        return allowDoubleClick;
+    }
+    
+    /**
+     * Check if this item is re-rendered periodically while the menu is open
+     */
+    public boolean isRefreshing() {
+        return refreshInterval > 0 && !isStatic();
+    }
+    
+    public Set<DynamicField> getDynamicFields() {
+        return Collections.unmodifiableSet(dynamicFields);
+    }
+    
+    /**
+     * Check if visibility of this item depends on the viewer
+     */
+    public boolean hasViewRequirements() {
+        return !permissions.isEmpty() || (condition != null && !condition.isEmpty());
+    }
+    
+    /**
+     * Check if this item renders identically for every player at all times
+     */
+    public boolean isStatic() {
+        return dynamicFields.isEmpty() && !hasViewRequirements();
+    }
 }
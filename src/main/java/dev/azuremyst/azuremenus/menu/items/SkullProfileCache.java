@@ -0,0 +1,323 @@
+package dev.azuremyst.azuremenus.menu.items;
+
+import com.destroystokyo.paper.profile.PlayerProfile;
+import com.destroystokyo.paper.profile.ProfileProperty;
+import dev.azuremyst.azuremenus.AzureMenusPlugin;
+import dev.azuremyst.azuremenus.menu.session.MenuSession;
+import org.bukkit.Bukkit;
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.bukkit.entity.Player;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Builds and caches head profiles for skull items.
+ * Texture profiles are built once per texture. Owner profiles are completed on the worker pool,
+ * shown as a placeholder head until ready, and kept on disk across restarts.
+ */
+public class SkullProfileCache {
+    
+    private static final String TEXTURES = "textures";
+    private static final long FAILED_RETRY_MILLIS = 10 * 60 * 1000L;
+    
+    private final AzureMenusPlugin plugin;
+    private final File cacheFile;
+    
+    // Profiles built from configured textures, keyed by texture value
+    private final Map<String, PlayerProfile> textureProfiles;
+    // Completed owner profiles, keyed by lower-case player name
+    private final Map<String, OwnerEntry> owners;
+    // Owner names currently being looked up
+    private final Set<String> pending;
+    // Owner names that could not be resolved, with the time they may be retried
+    private final Map<String, Long> failedUntil;
+    
+    private final AtomicBoolean refreshScheduled;
+    private final Object saveLock;
+    
+    private volatile boolean dirty;
+    private PlayerProfile placeholderProfile;
+    private long maxAgeMillis;
+    
+    public SkullProfileCache(AzureMenusPlugin plugin) {
+        this.plugin = plugin;
+        this.cacheFile = new File(plugin.getDataFolder(), "cache/skulls.yml");
+        this.textureProfiles = new ConcurrentHashMap<>();
+        this.owners = new ConcurrentHashMap<>();
+        this.pending = ConcurrentHashMap.newKeySet();
+        this.failedUntil = new ConcurrentHashMap<>();
+        this.refreshScheduled = new AtomicBoolean();
+        this.saveLock = new Object();
+    }
+    
+    /**
+     * Read settings and the on-disk owner cache
+     */
+    public void load() {
+        textureProfiles.clear();
+        failedUntil.clear();
+        
+        String placeholderTexture = plugin.getConfigManager().get("skulls.placeholder-texture", "");
+        this.placeholderProfile = placeholderTexture.isEmpty() ? null : getTextureProfile(placeholderTexture);
+        this.maxAgeMillis = plugin.getConfigManager().get("skulls.cache-days", 7) * 86_400_000L;
+        
+        if (!cacheFile.exists()) {
+            return;
+        }
+        
+        YamlConfiguration data = YamlConfiguration.loadConfiguration(cacheFile);
+        ConfigurationSection players = data.getConfigurationSection("players");
+        if (players == null) {
+            return;
+        }
+        
+        for (String key : players.getKeys(false)) {
+            ConfigurationSection entry = players.getConfigurationSection(key);
+            if (entry == null || entry.getString("texture") == null) {
+                continue;
+            }
+            
+            try {
+                owners.put(key, OwnerEntry.of(
+                    entry.getString("name", key),
+                    UUID.fromString(entry.getString("uuid")),
+                    entry.getString("texture"),
+                    entry.getString("signature"),
+                    entry.getLong("updated", 0L)
+                ));
+            } catch (IllegalArgumentException e) {
+                plugin.getLogger().warning("Skipping invalid skull cache entry '" + key + "'");
+            }
+        }
+        
+        if (plugin.getConfigManager().isDebugMode()) {
+            plugin.getLogger().info("Loaded " + owners.size() + " cached skull profile(s)");
+        }
+    }
+    
+    /**
+     * Write the owner cache to disk if it changed, replacing the previous file once complete.
+     * Saves run one at a time, so a save returns only after any save already in progress is written.
+     */
+    public void save() {
+        synchronized (saveLock) {
+            writeCache();
+        }
+    }
+    
+    private void writeCache() {
+        if (!dirty) {
+            return;
+        }
+        dirty = false;
+        
+        YamlConfiguration data = new YamlConfiguration();
+        for (Map.Entry<String, OwnerEntry> entry : owners.entrySet()) {
+            OwnerEntry owner = entry.getValue();
+            String path = "players." + entry.getKey();
+            data.set(path + ".name", owner.name);
+            data.set(path + ".uuid", owner.uuid.toString());
+            data.set(path + ".texture", owner.texture);
+            data.set(path + ".signature", owner.signature);
+            data.set(path + ".updated", owner.updated);
+        }
+        
+        File temp = new File(cacheFile.getParentFile(), cacheFile.getName() + ".tmp");
+        try {
+            cacheFile.getParentFile().mkdirs();
+            data.save(temp);
+            Files.move(temp.toPath(), cacheFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            plugin.getLogger().warning("Failed to save skull cache: " + e.getMessage());
+            dirty = true;
+        }
+    }
+    
+    /**
+     * Get the profile for a configured texture.
+     * Accepts a base64 texture value, a textures.minecraft.net URL or a bare texture hash.
+     */
+    public PlayerProfile getTextureProfile(String texture) {
+        return textureProfiles.computeIfAbsent(texture, key -> {
+            String value = toTextureValue(key);
+            // A stable id per texture lets the client reuse the downloaded skin
+            UUID id = UUID.nameUUIDFromBytes(value.getBytes(StandardCharsets.UTF_8));
+            PlayerProfile profile = Bukkit.createProfile(id, null);
+            profile.setProperty(new ProfileProperty(TEXTURES, value));
+            return profile;
+        });
+    }
+    
+    /**
+     * Get the completed profile of a head owner.
+     * If it is not known yet, a lookup is started and the placeholder profile is returned,
+     * which may be null for a plain default head.
+     */
+    public PlayerProfile getOwnerProfile(String name) {
+        String key = name.toLowerCase();
+        OwnerEntry entry = owners.get(key);
+        
+        if (entry == null) {
+            // Online players already carry their textures
+            Player online = Bukkit.getPlayerExact(name);
+            if (online != null) {
+                entry = store(key, online.getPlayerProfile());
+            }
+        }
+        
+        if (entry == null || System.currentTimeMillis() - entry.updated > maxAgeMillis) {
+            // Stale entries stay in use while they are refreshed
+            lookup(key, name);
+        }
+        return entry != null ? entry.profile : placeholderProfile;
+    }
+    
+    /**
+     * Check if an owner's profile is available without a lookup
+     */
+    public boolean hasOwnerProfile(String name) {
+        return owners.containsKey(name.toLowerCase());
+    }
+    
+    /**
+     * Complete an owner profile on the worker pool, once per name
+     */
+    private void lookup(String key, String name) {
+        Long retryAt = failedUntil.get(key);
+        if (retryAt != null && System.currentTimeMillis() < retryAt) {
+            return;
+        }
+        if (!pending.add(key)) {
+            return;
+        }
+        
+        plugin.getWorkerPool().supply(() -> {
+            PlayerProfile profile = Bukkit.createProfile(name);
+            return profile.complete(true) ? profile : null;
+        }).whenComplete((profile, error) -> {
+            pending.remove(key);
+            if (error != null) {
+                plugin.getLogger().warning("Failed to look up skull owner '" + name + "': " + error.getMessage());
+                return;
+            }
+            if (profile != null && store(key, profile) != null) {
+                failedUntil.remove(key);
+                scheduleRefresh();
+            } else {
+                // Unknown names are not asked for again on every render
+                failedUntil.put(key, System.currentTimeMillis() + FAILED_RETRY_MILLIS);
+            }
+        });
+    }
+    
+    /**
+     * Remember the textures of a completed profile
+     */
+    private OwnerEntry store(String key, PlayerProfile profile) {
+        if (profile == null || profile.getId() == null) {
+            return null;
+        }
+        
+        for (ProfileProperty property : profile.getProperties()) {
+            if (TEXTURES.equals(property.getName())) {
+                OwnerEntry entry = OwnerEntry.of(profile.getName() != null ? profile.getName() : key,
+                    profile.getId(), property.getValue(), property.getSignature(), System.currentTimeMillis());
+                owners.put(key, entry);
+                dirty = true;
+                return entry;
+            }
+        }
+        return null;
+    }
+    
+    /**
+     * Re-render open menus on the main thread after heads became available, batching lookups
+     * that finish together into one pass
+     */
+    private void scheduleRefresh() {
+        if (refreshScheduled.compareAndSet(false, true) && plugin.isEnabled()) {
+            Bukkit.getScheduler().runTask(plugin, this::flushRefresh);
+        }
+    }
+    
+    private void flushRefresh() {
+        refreshScheduled.set(false);
+        
+        for (MenuSession session : new ArrayList<>(plugin.getMenuManager().getViewerRegistry().getAllSessions())) {
+            if (session.getMenu().hasOwnerSkulls()) {
+                session.render();
+            }
+        }
+    }
+    
+    /**
+     * Turn a configured texture into a base64 textures property value
+     */
+    private static String toTextureValue(String texture) {
+        String url;
+        if (texture.startsWith("http://") || texture.startsWith("https://")) {
+            url = texture;
+        } else if (texture.matches("[0-9a-fA-F]{32,}")) {
+            url = "http://textures.minecraft.net/texture/" + texture;
+        } else {
+            return texture;
+        }
+        String json = "{\"textures\":{\"SKIN\":{\"url\":\"" + url + "\"}}}";
+        return Base64.getEncoder().encodeToString(json.getBytes(StandardCharsets.UTF_8));
+    }
+    
+    /**
+     * Drop every cached profile, in memory and on disk
+     */
+    public void clear() {
+        textureProfiles.clear();
+        owners.clear();
+        dirty = true;
+        save();
+    }
+    
+    public int getCachedOwnerCount() {
+        return owners.size();
+    }
+    
+    /**
+     * Cached textures of a head owner, with the profile built from them once
+     */
+    private static final class OwnerEntry {
+        
+        private final String name;
+        private final UUID uuid;
+        private final String texture;
+        private final String signature;
+        private final long updated;
+        private final PlayerProfile profile;
+        
+        private OwnerEntry(String name, UUID uuid, String texture, String signature, long updated,
+                           PlayerProfile profile) {
+            this.name = name;
+            this.uuid = uuid;
+            this.texture = texture;
+            this.signature = signature;
+            this.updated = updated;
+            this.profile = profile;
+        }
+        
+        static OwnerEntry of(String name, UUID uuid, String texture, String signature, long updated) {
+            PlayerProfile profile = Bukkit.createProfile(uuid, name);
+            profile.setProperty(new ProfileProperty(TEXTURES, texture, signature));
+            return new OwnerEntry(name, uuid, texture, signature, updated, profile);
+        }
+    }
+}
@@ -0,0 +1,173 @@
+package dev.azuremyst.azuremenus.menu.session;
+
+import dev.azuremyst.azuremenus.AzureMenusPlugin;
+import dev.azuremyst.azuremenus.menu.items.MenuItem;
+import org.bukkit.event.inventory.ClickType;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Limits how fast players can click menu items.
+ * Each player has a token bucket shared by all slots plus a minimum interval per slot,
+ * and the DOUBLE_CLICK event that follows two quick left clicks is dropped as a duplicate.
+ * Called from the click event on the main thread; checks do not allocate.
+ */
+public class ClickLimiter {
+    
+    // Largest inventory a menu can have
+    private static final int MAX_SLOTS = 54;
+    private static final long NEVER = Long.MIN_VALUE / 2;
+    
+    /**
+     * Outcome of a click check
+     */
+    public enum Result {
+        ALLOWED,
+        SLOT_COOLDOWN,
+        RATE_LIMITED,
+        DOUBLE_CLICK
+    }
+    
+    private final AzureMenusPlugin plugin;
+    private final Map<UUID, PlayerClicks> players;
+    
+    private final LongAdder allowed;
+    private final LongAdder slotCooldownRejected;
+    private final LongAdder rateLimitRejected;
+    private final LongAdder doubleClickRejected;
+    
+    private volatile boolean enabled;
+    private volatile long slotIntervalNanos;
+    private volatile int burst;
+    private volatile double tokensPerNano;
+    private volatile boolean ignoreDoubleClick;
+    
+    public ClickLimiter(AzureMenusPlugin plugin) {
+        this.plugin = plugin;
+        this.players = new ConcurrentHashMap<>();
+        this.allowed = new LongAdder();
+        this.slotCooldownRejected = new LongAdder();
+        this.rateLimitRejected = new LongAdder();
+        this.doubleClickRejected = new LongAdder();
+    }
+    
+    /**
+     * Read the limits from the configuration
+     */
+    public void load() {
+        this.enabled = plugin.getConfigManager().get("security.click-limit.enabled", true);
+        this.slotIntervalNanos = TimeUnit.MILLISECONDS.toNanos(
+            plugin.getConfigManager().get("security.click-limit.slot-interval", 150));
+        this.burst = Math.max(1, plugin.getConfigManager().get("security.click-limit.burst", 8));
+        double perSecond = plugin.getConfigManager().getConfig().getDouble("security.click-limit.per-second", 5.0);
+        this.tokensPerNano = perSecond / TimeUnit.SECONDS.toNanos(1);
+        this.ignoreDoubleClick = plugin.getConfigManager().get("security.click-limit.ignore-double-click", true);
+        
+        // Buckets are recreated with the new burst size on the next click
+        players.clear();
+    }
+    
+    /**
+     * Check a click on a menu item and record it if allowed
+     */
+    public Result tryClick(UUID playerId, int slot, ClickType clickType, MenuItem item) {
+        if (!enabled) {
+            return Result.ALLOWED;
+        }
+        
+        boolean doubleClick = clickType == ClickType.DOUBLE_CLICK;
+        if (doubleClick && ignoreDoubleClick && !item.isDoubleClickAllowed()) {
+            // The left clicks before it were already handled
+            doubleClickRejected.increment();
+            return Result.DOUBLE_CLICK;
+        }
+        
+        PlayerClicks clicks = players.get(playerId);
+        if (clicks == null) {
+            clicks = new PlayerClicks(burst);
+            players.put(playerId, clicks);
+        }
+        
+        long now = System.nanoTime();
+        
+        // A double click arrives right after the left click on the same slot, so only the bucket applies to it
+        long interval = item.getClickCooldown() >= 0
+            ? TimeUnit.MILLISECONDS.toNanos(item.getClickCooldown())
+            : slotIntervalNanos;
+        boolean slotTracked = slot >= 0 && slot < MAX_SLOTS;
+        if (!doubleClick && slotTracked && now - clicks.lastSlotClick[slot] < interval) {
+            slotCooldownRejected.increment();
+            return Result.SLOT_COOLDOWN;
+        }
+        
+        // Refill the bucket for the time since the last click
+        if (tokensPerNano > 0) {
+            clicks.tokens = Math.min(burst, clicks.tokens + (now - clicks.lastRefill) * tokensPerNano);
+            clicks.lastRefill = now;
+            if (clicks.tokens < 1) {
+                rateLimitRejected.increment();
+                return Result.RATE_LIMITED;
+            }
+            clicks.tokens -= 1;
+        }
+        
+        if (slotTracked) {
+            clicks.lastSlotClick[slot] = now;
+        }
+        allowed.increment();
+        return Result.ALLOWED;
+    }
+    
+    /**
+     * Forget the state of a player leaving the server
+     */
+    public void forget(UUID playerId) {
+        players.remove(playerId);
+    }
+    
+    /**
+     * Get click counters since startup
+     */
+    public Stats getStats() {
+        return new Stats(allowed.sum(), slotCooldownRejected.sum(), rateLimitRejected.sum(),
+            doubleClickRejected.sum());
+    }
+    
+    /**
+     * Snapshot of click counters
+     */
+    public record Stats(long allowed, long slotCooldown, long rateLimited, long doubleClicks) {
+        
+        public long rejected() {
+            return slotCooldown + rateLimited + doubleClicks;
+        }
+        
+        @Override
+        public String toString() {
+            return String.format("allowed=%d, rejected=%d (slot-cooldown=%d, rate-limited=%d, double-click=%d)",
+                allowed, rejected(), slotCooldown, rateLimited, doubleClicks);
+        }
+    }
+    
+    /**
+     * Click state of one player, only touched on the main thread
+     */
+    private static final class PlayerClicks {
+        
+        private final long[] lastSlotClick;
+        private double tokens;
+        private long lastRefill;
+        
+        private PlayerClicks(int burst) {
+            this.lastSlotClick = new long[MAX_SLOTS];
+            Arrays.fill(lastSlotClick, NEVER);
+            this.tokens = burst;
+            this.lastRefill = System.nanoTime();
+        }
+    }
+}
@@ -0,0 +1,467 @@
+package dev.azuremyst.azuremenus.menu.session;
+
+import dev.azuremyst.azuremenus.AzureMenusPlugin;
+import dev.azuremyst.azuremenus.menu.Menu;
+import dev.azuremyst.azuremenus.menu.Pagination;
+import dev.azuremyst.azuremenus.menu.condition.ConditionContext;
+import dev.azuremyst.azuremenus.menu.items.MenuItem;
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+import org.bukkit.event.inventory.ClickType;
+import org.bukkit.inventory.Inventory;
+import org.bukkit.inventory.InventoryHolder;
+import org.bukkit.inventory.ItemStack;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * A single player's view of a menu.
+ * Each session owns its own inventory, so rendering one viewer never touches another viewer's items.
+ * Permission checks made while rendering or clicking are answered from the session's permission snapshot.
+ */
+public class MenuSession implements InventoryHolder, ConditionContext {
+    
+    private volatile Menu menu;
+    private final Player player;
+    private final Inventory inventory;
+    private final ItemStack[] renderedSlots;
+    private int[] nextRefresh;
+    private PermissionSnapshot permissions;
+    private final Map<String, Object> state;
+    private final long openedAt;
+    
+    // Paginated menus: the page shown, its content items and the number of pages known so far
+    private int page;
+    private List<MenuItem> pageContent;
+    private int pageCount;
+    
+    // Data source pages: the latest request, and the next page fetched ahead of time
+    private int pageRequest;
+    private int prefetchedPage;
+    private CompletableFuture<Pagination.PageContent> prefetchedContent;
+    
+    // Search over the fixed content list, null while the whole list is shown
+    private String searchQuery;
+    private List<MenuItem> searchResults;
+    private volatile boolean active;
+    
+    public MenuSession(Menu menu, Player player) {
+        this.menu = menu;
+        this.player = player;
+        this.inventory = menu.createInventory(this);
+        this.renderedSlots = new ItemStack[menu.getSize()];
+        this.nextRefresh = new int[menu.getRefreshSlots().length];
+        this.permissions = new PermissionSnapshot(menu.getPermissionIndex(), player,
+            AzureMenusPlugin.getInstance().getConfigManager().getPermissionSnapshotTtl());
+        this.state = new HashMap<>();
+        this.openedAt = System.currentTimeMillis();
+        this.active = true;
+        this.pageCount = 1;
+        this.prefetchedPage = -1;
+    }
+    
+    /**
+     * Render the menu contents for this session's viewer.
+     * Only slots whose item differs from the last render are written to the inventory.
+     *
+     * @return number of slots that were updated
+     */
+    public int render() {
+        ItemStack[] contents = menu.buildContents(this);
+        
+        // Content from a data source shows up once fetched, the mask shows the fill item until then
+        Pagination pagination = menu.getPagination();
+        if (pagination != null) {
+            if (pageContent == null) {
+                if (pagination.getSource() == null) {
+                    setPageContent(page, fixedContent(pagination, page));
+                } else {
+                    requestPage(pagination, page);
+                }
+            }
+            for (int slot : pagination.getPageSlots()) {
+                if (slot < contents.length) {
+                    contents[slot] = buildPageSlot(pagination, slot);
+                }
+            }
+        }
+        
+        int changed = 0;
+        for (int slot = 0; slot < contents.length; slot++) {
+            if (renderSlot(slot, contents[slot])) {
+                changed++;
+            }
+        }
+        
+        // Everything is fresh now, restart the refresh clocks
+        int currentTick = Bukkit.getCurrentTick();
+        int[] intervals = menu.getRefreshIntervals();
+        for (int i = 0; i < nextRefresh.length; i++) {
+            nextRefresh[i] = currentTick + intervals[i];
+        }
+        if (pagination != null && pageContent != null) {
+            prefetchNextPage(pagination);
+        }
+        return changed;
+    }
+    
+    /**
+     * Turn to another page of a paginated menu, clamped to the pages known to exist.
+     * Only the content slots and navigation buttons are rebuilt, inside the inventory already open;
+     * pages of a data source are rebuilt once they have been fetched.
+     */
+    public void showPage(int target) {
+        Pagination pagination = menu.getPagination();
+        if (pagination == null) {
+            return;
+        }
+        
+        int next = Math.max(0, Math.min(target, pageCount - 1));
+        if (next == page && pageContent != null) {
+            return;
+        }
+        
+        if (pagination.getSource() != null) {
+            requestPage(pagination, next);
+            return;
+        }
+        setPageContent(next, fixedContent(pagination, next));
+        renderPageSlots(pagination);
+        prefetchNextPage(pagination);
+    }
+    
+    /**
+     * Show only the content items matching a query, starting from the first page of results.
+     * A blank query shows the whole content again.
+     *
+     * @return false if this menu has no searchable content
+     */
+    public boolean search(String query) {
+        Pagination pagination = menu.getPagination();
+        if (pagination == null || !pagination.isSearchable()) {
+            return false;
+        }
+        
+        String trimmed = query != null ? query.trim() : "";
+        this.searchQuery = trimmed.isEmpty() ? null : trimmed;
+        this.searchResults = searchQuery != null ? pagination.search(searchQuery) : null;
+        
+        setPageContent(0, fixedContent(pagination, 0));
+        renderPageSlots(pagination);
+        prefetchNextPage(pagination);
+        return true;
+    }
+    
+    /**
+     * Get the current search query, or null if the whole content is shown
+     */
+    public String getSearchQuery() {
+        return searchQuery;
+    }
+    
+    /**
+     * Get the number of content items matching the current search, or -1 without a search
+     */
+    public int getSearchResultCount() {
+        return searchResults != null ? searchResults.size() : -1;
+    }
+    
+    /**
+     * Fetch a page from the data source and show it, unless another page was requested in the meantime
+     */
+    private void requestPage(Pagination pagination, int target) {
+        int request = ++pageRequest;
+        CompletableFuture<Pagination.PageContent> future = target == prefetchedPage && prefetchedContent != null
+            ? prefetchedContent
+            : pagination.fetch(player, target);
+        prefetchedPage = -1;
+        prefetchedContent = null;
+        
+        future.whenComplete((content, error) -> {
+            if (error != null) {
+                AzureMenusPlugin.getInstance().getLogger().warning("Failed to load page " + (target + 1) 
+                    + " of menu " + menu.getName() + ": " + (error.getCause() != null ? error.getCause().getMessage() : error.getMessage()));
+                return;
+            }
+            if (request != pageRequest || !active || menu.getPagination() != pagination) {
+                return;
+            }
+            
+            // The source shrank since the page count was known, so show its last page instead
+            if (content.items().isEmpty() && target > 0 && target >= content.pageCount()) {
+                requestPage(pagination, content.pageCount() - 1);
+                return;
+            }
+            
+            setPageContent(target, content);
+            renderPageSlots(pagination);
+            prefetchNextPage(pagination);
+        });
+    }
+    
+    private void prefetchNextPage(Pagination pagination) {
+        int next = page + 1;
+        if (next >= pageCount) {
+            return;
+        }
+        
+        if (pagination.getSource() == null) {
+            // Search results are already narrowed down, only the full list is worth warming up
+            if (searchResults == null) {
+                menu.prefetchPage(next);
+            }
+        } else if (prefetchedPage != next) {
+            prefetchedPage = next;
+            prefetchedContent = pagination.fetch(player, next);
+        }
+    }
+    
+    /**
+     * Get a page of the fixed content list, or of the search results while searching
+     */
+    private Pagination.PageContent fixedContent(Pagination pagination, int page) {
+        return pagination.getPage(searchResults != null ? searchResults : pagination.getContent(), page);
+    }
+    
+    private void setPageContent(int page, Pagination.PageContent content) {
+        this.page = page;
+        this.pageContent = content.items();
+        this.pageCount = content.pageCount();
+    }
+    
+    /**
+     * Write the content slots and navigation buttons of the current page into the inventory
+     */
+    private void renderPageSlots(Pagination pagination) {
+        for (int slot : pagination.getPageSlots()) {
+            if (slot < renderedSlots.length) {
+                renderSlot(slot, buildPageSlot(pagination, slot));
+            }
+        }
+    }
+    
+    /**
+     * Build the item of a content slot or navigation button; a button without a page to go to
+     * shows what the slot would hold without it
+     */
+    private ItemStack buildPageSlot(Pagination pagination, int slot) {
+        MenuItem item = getItem(slot);
+        if (item != null && item.canView(this)) {
+            return item.buildItemStack(player);
+        }
+        return pagination.isContentSlot(slot) ? menu.buildFill(this) : menu.buildSlot(this, slot);
+    }
+    
+    /**
+     * Re-render only the refreshing items whose interval has elapsed
+     *
+     * @return number of slots that were updated
+     */
+    public int refreshDue(int currentTick) {
+        int[] slots = menu.getRefreshSlots();
+        int[] intervals = menu.getRefreshIntervals();
+        
+        int changed = 0;
+        for (int i = 0; i < slots.length; i++) {
+            if (currentTick < nextRefresh[i]) continue;
+            
+            nextRefresh[i] = currentTick + intervals[i];
+            if (renderSlot(slots[i], menu.buildSlot(this, slots[i]))) {
+                changed++;
+            }
+        }
+        return changed;
+    }
+    
+    /**
+     * Write an item into a slot if it differs from what the viewer already sees
+     */
+    private boolean renderSlot(int slot, ItemStack item) {
+        ItemStack previous = renderedSlots[slot];
+        if (isSameItem(previous, item)) {
+            return false;
+        }
+        
+        // A null item clears the slot, which only happens when something was rendered there before
+        inventory.setItem(slot, item);
+        renderedSlots[slot] = item;
+        return true;
+    }
+    
+    /**
+     * Compare two rendered items, cheapest checks first
+     */
+    private static boolean isSameItem(ItemStack previous, ItemStack next) {
+        if (previous == next) return true;
+        if (previous == null || next == null) return false;
+        return previous.equals(next);
+    }
+    
+    /**
+     * Switch this session to a new definition of its menu, keeping the inventory the player has open.
+     * Call {@link #render()} afterwards to bring the contents up to date.
+     *
+     * @return false if the new definition needs a different inventory, leaving the session unchanged
+     */
+    public boolean migrate(Menu newMenu) {
+        if (newMenu.getSize() != menu.getSize() || !newMenu.getTitle().equals(menu.getTitle())) {
+            return false;
+        }
+        
+        this.menu = newMenu;
+        
+        // Page content is loaded again from the new definition on the next render, searches run against its index
+        Pagination pagination = newMenu.getPagination();
+        this.searchResults = searchQuery != null && pagination != null ? pagination.search(searchQuery) : null;
+        if (searchResults == null) {
+            this.searchQuery = null;
+        }
+        if (pagination == null) {
+            this.page = 0;
+        } else if (pagination.getSource() == null) {
+            this.page = Math.min(page, fixedContent(pagination, 0).pageCount() - 1);
+        }
+        this.pageContent = null;
+        this.pageCount = 1;
+        this.pageRequest++;
+        this.prefetchedPage = -1;
+        this.prefetchedContent = null;
+        
+        this.nextRefresh = new int[newMenu.getRefreshSlots().length];
+        this.permissions = new PermissionSnapshot(newMenu.getPermissionIndex(), player,
+            AzureMenusPlugin.getInstance().getConfigManager().getPermissionSnapshotTtl());
+        return true;
+    }
+    
+    /**
+     * Check a permission against this session's snapshot
+     */
+    @Override
+    public boolean hasPermission(String permission) {
+        return permissions.has(permission);
+    }
+    
+    /**
+     * Drop the permission snapshot so the next check resolves permissions again
+     */
+    public void invalidatePermissions() {
+        permissions.invalidate();
+    }
+    
+    /**
+     * Mark this session as no longer shown to its player
+     */
+    public void markClosed() {
+        this.active = false;
+    }
+    
+    /**
+     * Check if this session is still the one its player is looking at
+     */
+    public boolean isActive() {
+        return active;
+    }
+    
+    /**
+     * Handle click on a slot of this session's inventory
+     */
+    public void handleClick(int slot, ClickType clickType) {
+        Pagination pagination = menu.getPagination();
+        if (pagination == null) {
+            menu.handleClick(this, slot, clickType);
+            return;
+        }
+        
+        MenuItem item = getItem(slot);
+        if (item == null || !item.canView(this)) {
+            return;
+        }
+        
+        // Navigation buttons turn the page before running any actions of their own
+        Pagination.Navigation navigation = pagination.getNavigation(slot);
+        if (navigation != null && item == pagination.getNavigationItem(navigation)) {
+            showPage(navigation.getTarget(page, pageCount));
+        }
+        item.handleClick(this, clickType);
+    }
+    
+    /**
+     * Get the item in a slot on the page this viewer is on
+     */
+    public MenuItem getItem(int slot) {
+        Pagination pagination = menu.getPagination();
+        if (pagination == null) {
+            return menu.getItems().get(slot);
+        }
+        
+        int index = pagination.getContentIndex(slot);
+        if (index >= 0) {
+            return pageContent != null && index < pageContent.size() ? pageContent.get(index) : null;
+        }
+        
+        Pagination.Navigation navigation = pagination.getNavigation(slot);
+        if (navigation != null && navigation.getTarget(page, pageCount) >= 0) {
+            return pagination.getNavigationItem(navigation);
+        }
+        return menu.getItems().get(slot);
+    }
+    
+    /**
+     * Get the page this viewer is on, counted from 0
+     */
+    public int getPage() {
+        return page;
+    }
+    
+    /**
+     * Get the item last rendered into a slot
+     */
+    public ItemStack getRenderedItem(int slot) {
+        if (slot < 0 || slot >= renderedSlots.length) return null;
+        return renderedSlots[slot];
+    }
+    
+    /**
+     * Get a per-session state value
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T getState(String key, T defaultValue) {
+        Object value = state.get(key);
+        return value != null ? (T) value : defaultValue;
+    }
+    
+    /**
+     * Set a per-session state value
+     */
+    public void setState(String key, Object value) {
+        if (value == null) {
+            state.remove(key);
+        } else {
+            state.put(key, value);
+        }
+    }
+    
+    // Getters
+    public Menu getMenu() {
+        return menu;
+    }
+    
+    @Override
+    public Player getPlayer() {
+        return player;
+    }
+    
+    public long getOpenedAt() {
+        return openedAt;
+    }
+    
+    @Override
+    @NotNull
+    public Inventory getInventory() {
+        return inventory;
+    }
+}
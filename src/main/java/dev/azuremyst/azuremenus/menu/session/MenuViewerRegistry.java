@@ -0,0 +1,142 @@
+package dev.azuremyst.azuremenus.menu.session;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Index of open menu sessions by player and by menu name.
+ * Kept up to date from open, close, quit and kick so nothing has to scan online players.
+ */
+public class MenuViewerRegistry {
+    
+    private final Map<UUID, MenuSession> byPlayer;
+    private final Map<String, Set<MenuSession>> byMenu;
+    
+    public MenuViewerRegistry() {
+        this.byPlayer = new ConcurrentHashMap<>();
+        this.byMenu = new ConcurrentHashMap<>();
+    }
+    
+    /**
+     * Register a session as its player's current one, returning the session it replaced
+     */
+    public MenuSession register(MenuSession session) {
+        MenuSession previous = byPlayer.put(session.getPlayer().getUniqueId(), session);
+        if (previous != null) {
+            removeFromMenu(previous);
+        }
+        byMenu.computeIfAbsent(key(session.getMenu().getName()), k -> ConcurrentHashMap.newKeySet())
+            .add(session);
+        return previous;
+    }
+    
+    /**
+     * Unregister a session if it is still its player's current one
+     */
+    public boolean unregister(MenuSession session) {
+        if (!byPlayer.remove(session.getPlayer().getUniqueId(), session)) {
+            return false;
+        }
+        removeFromMenu(session);
+        return true;
+    }
+    
+    /**
+     * Remove whatever session a player has open
+     */
+    public MenuSession remove(UUID playerId) {
+        MenuSession session = byPlayer.remove(playerId);
+        if (session != null) {
+            removeFromMenu(session);
+        }
+        return session;
+    }
+    
+    private void removeFromMenu(MenuSession session) {
+        byMenu.computeIfPresent(key(session.getMenu().getName()), (k, viewers) -> {
+            viewers.remove(session);
+            return viewers.isEmpty() ? null : viewers;
+        });
+    }
+    
+    /**
+     * Get the session a player currently has open
+     */
+    public MenuSession getSession(UUID playerId) {
+        return byPlayer.get(playerId);
+    }
+    
+    /**
+     * Get a player's session only if it is showing the given menu
+     */
+    public MenuSession getSession(String menuName, UUID playerId) {
+        MenuSession session = byPlayer.get(playerId);
+        if (session != null && session.getMenu().getName().equalsIgnoreCase(menuName)) {
+            return session;
+        }
+        return null;
+    }
+    
+    /**
+     * Check if a player is viewing the given menu
+     */
+    public boolean isViewing(String menuName, UUID playerId) {
+        return getSession(menuName, playerId) != null;
+    }
+    
+    /**
+     * Get a live view of the sessions viewing a menu
+     */
+    public Collection<MenuSession> getViewers(String menuName) {
+        Set<MenuSession> viewers = byMenu.get(key(menuName));
+        return viewers != null ? Collections.unmodifiableSet(viewers) : Collections.emptySet();
+    }
+    
+    /**
+     * Get the number of players viewing a menu
+     */
+    public int getViewerCount(String menuName) {
+        Set<MenuSession> viewers = byMenu.get(key(menuName));
+        return viewers != null ? viewers.size() : 0;
+    }
+    
+    /**
+     * Get the viewer count of every menu that has at least one viewer
+     */
+    public Map<String, Integer> getViewerCounts() {
+        Map<String, Integer> counts = new ConcurrentHashMap<>();
+        byMenu.forEach((name, viewers) -> counts.put(name, viewers.size()));
+        return counts;
+    }
+    
+    /**
+     * Get a live view of all open sessions
+     */
+    public Collection<MenuSession> getAllSessions() {
+        return Collections.unmodifiableCollection(byPlayer.values());
+    }
+    
+    /**
+     * Remove every session, returning the ones that were open
+     */
+    public List<MenuSession> clear() {
+        List<MenuSession> removed = new ArrayList<>(byPlayer.values());
+        byPlayer.clear();
+        byMenu.clear();
+        return removed;
+    }
+    
+    public int size() {
+        return byPlayer.size();
+    }
+    
+    private static String key(String menuName) {
+        return menuName.toLowerCase();
+    }
+}
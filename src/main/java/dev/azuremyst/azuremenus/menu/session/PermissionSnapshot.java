@@ -0,0 +1,70 @@
+package dev.azuremyst.azuremenus.menu.session;
+
+import dev.azuremyst.azuremenus.menu.PermissionIndex;
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+
+import java.util.BitSet;
+
+/**
+ * A viewer's answers to every permission a menu references, resolved together into a bitset.
+ * The snapshot is re-resolved once its lifetime runs out or after it has been invalidated,
+ * so visibility and action checks do not hit the permission plugin on every render and click.
+ */
+public class PermissionSnapshot {
+    
+    private final PermissionIndex index;
+    private final Player player;
+    private final int ttlTicks;
+    private final BitSet granted;
+    
+    private int expiresAt;
+    private boolean valid;
+    
+    /**
+     * @param ttlTicks how long resolved permissions stay valid; 0 or less always asks the player
+     */
+    public PermissionSnapshot(PermissionIndex index, Player player, int ttlTicks) {
+        this.index = index;
+        this.player = player;
+        this.ttlTicks = ttlTicks;
+        this.granted = new BitSet(index.size());
+    }
+    
+    /**
+     * Check if the player has a permission
+     */
+    public boolean has(String node) {
+        int position = index.indexOf(node);
+        if (position < 0 || ttlTicks <= 0) {
+            // Not referenced by the menu, or snapshots are disabled
+            return player.hasPermission(node);
+        }
+        
+        if (!valid || Bukkit.getCurrentTick() >= expiresAt) {
+            refresh();
+        }
+        return granted.get(position);
+    }
+    
+    /**
+     * Resolve every indexed permission again
+     */
+    public void refresh() {
+        granted.clear();
+        for (int i = 0; i < index.size(); i++) {
+            if (player.hasPermission(index.get(i))) {
+                granted.set(i);
+            }
+        }
+        expiresAt = Bukkit.getCurrentTick() + ttlTicks;
+        valid = true;
+    }
+    
+    /**
+     * Force the next check to resolve permissions again
+     */
+    public void invalidate() {
+        valid = false;
+    }
+}
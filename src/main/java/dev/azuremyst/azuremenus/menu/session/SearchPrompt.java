@@ -0,0 +1,99 @@
+package dev.azuremyst.azuremenus.menu.session;
+
+import dev.azuremyst.azuremenus.AzureMenusPlugin;
+import dev.azuremyst.azuremenus.language.LanguageManager;
+import dev.azuremyst.azuremenus.menu.Menu;
+import dev.azuremyst.azuremenus.utils.ColorUtil;
+import io.papermc.paper.event.player.AsyncChatEvent;
+import net.kyori.adventure.text.serializer.plain.PlainTextComponentSerializer;
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Asks a player for a search query in chat, then reopens the menu showing the matching content.
+ * The next chat message after the prompt is taken as the query and not sent to chat.
+ */
+public class SearchPrompt implements Listener {
+    
+    private static final String CANCEL_WORD = "cancel";
+    
+    private final AzureMenusPlugin plugin;
+    
+    // Players asked for a query, with the menu to search and when the prompt expires (System.nanoTime)
+    private final Map<UUID, Prompt> prompts;
+    
+    public SearchPrompt(AzureMenusPlugin plugin) {
+        this.plugin = plugin;
+        this.prompts = new ConcurrentHashMap<>();
+    }
+    
+    /**
+     * Close the menu and ask the player for a query to search it with
+     */
+    public void prompt(Player player, Menu menu) {
+        int timeoutSeconds = Math.max(1, plugin.getConfigManager().get("search.prompt-timeout", 30));
+        prompts.put(player.getUniqueId(), new Prompt(menu.getName(),
+            System.nanoTime() + TimeUnit.SECONDS.toNanos(timeoutSeconds)));
+        
+        player.closeInventory();
+        plugin.getLanguageManager().sendPrefixedMessage(player, "menus.search.prompt",
+            LanguageManager.createPlaceholders("seconds", String.valueOf(timeoutSeconds), "cancel", CANCEL_WORD));
+    }
+    
+    /**
+     * Drop the prompt of a player, if any
+     */
+    public void cancel(UUID playerId) {
+        prompts.remove(playerId);
+    }
+    
+    /**
+     * Take the first message after a prompt as the query. Chat events arrive off the main thread.
+     */
+    @EventHandler(priority = EventPriority.LOWEST, ignoreCancelled = true)
+    public void onChat(AsyncChatEvent event) {
+        Player player = event.getPlayer();
+        Prompt prompt = prompts.remove(player.getUniqueId());
+        if (prompt == null || prompt.expiresAt() - System.nanoTime() < 0) {
+            return;
+        }
+        
+        event.setCancelled(true);
+        String query = PlainTextComponentSerializer.plainText().serialize(event.message()).trim();
+        Bukkit.getScheduler().runTask(plugin, () -> complete(player, prompt.menuName(), query));
+    }
+    
+    private void complete(Player player, String menuName, String query) {
+        if (!player.isOnline()) {
+            return;
+        }
+        
+        // Cancelling goes back to the menu as it was
+        boolean cancelled = query.equalsIgnoreCase(CANCEL_WORD);
+        if (cancelled) {
+            plugin.getLanguageManager().sendPrefixedMessage(player, "menus.search.cancelled");
+        }
+        
+        plugin.getMenuManager().openMenu(player, menuName, session -> {
+            if (cancelled || !session.search(query)) {
+                return;
+            }
+            int found = session.getSearchResultCount();
+            // The query is raw chat text, its tags must not be parsed with the message
+            plugin.getLanguageManager().sendPrefixedMessage(player,
+                found == 0 ? "menus.search.no-results" : "menus.search.results",
+                LanguageManager.createPlaceholders("query", ColorUtil.escapeTags(query), "count", String.valueOf(found)));
+        });
+    }
+    
+    private record Prompt(String menuName, long expiresAt) {
+    }
+}
@@ -1,19 +1,374 @@
 package dev.azuremyst.azuremenus.placeholders;
 
 import dev.azuremyst.azuremenus.AzureMenusPlugin;
+import dev.azuremyst.azuremenus.menu.session.MenuSession;
+import dev.azuremyst.azuremenus.utils.CacheStats;
+import me.clip.placeholderapi.PlaceholderAPI;
+import org.bukkit.Bukkit;
+import org.bukkit.OfflinePlayer;
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.entity.Player;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.logging.Level;
+import java.util.regex.Pattern;
 
 /**
- * Manages placeholder integrations
+ * Central placeholder resolver.
+ * PlaceholderAPI values are cached per player for a configurable number of ticks per placeholder.
+ * Placeholders whitelisted as thread-safe can be resolved on the worker pool so a slow expansion
+ * never holds up the main thread; menus show a loading value until the result arrives.
+ * Those expansions receive an immutable snapshot of the player taken on the main thread.
  */
 public class PlaceholderService {
     
+    // Same token shape PlaceholderAPI looks for: %identifier%
+    private static final Pattern PLACEHOLDER_PATTERN = Pattern.compile("%[^%\\s]+%");
+    
     private final AzureMenusPlugin plugin;
+    private final Map<String, Function<Player, String>> internalPlaceholders;
+    private final Map<UUID, Map<String, CachedValue>> playerCaches;
+    private final LongAdder cacheHits;
+    private final LongAdder cacheMisses;
+    private final LongAdder cacheEvictions;
+    private final Set<PendingKey> pendingResolutions;
+    private final Set<UUID> pendingRefreshes;
+    private final AtomicBoolean refreshScheduled;
+    // Async identifiers whose expansion failed, so the failure is logged once and not on every refresh
+    private final Set<String> failedIdentifiers;
+    
+    private boolean placeholderApiEnabled;
+    private Map<String, Integer> cacheTtls;
+    private int defaultCacheTtl;
+    
+    // Async resolution settings
+    private boolean asyncEnabled;
+    private Set<String> asyncIdentifiers;
+    private List<String> asyncPrefixes;
+    private String asyncLoadingText;
+    private int asyncResultTtl;
     
     public PlaceholderService(AzureMenusPlugin plugin) {
         this.plugin = plugin;
+        this.internalPlaceholders = new ConcurrentHashMap<>();
+        this.playerCaches = new ConcurrentHashMap<>();
+        this.cacheHits = new LongAdder();
+        this.cacheMisses = new LongAdder();
+        this.cacheEvictions = new LongAdder();
+        this.pendingResolutions = ConcurrentHashMap.newKeySet();
+        this.pendingRefreshes = ConcurrentHashMap.newKeySet();
+        this.refreshScheduled = new AtomicBoolean();
+        this.failedIdentifiers = ConcurrentHashMap.newKeySet();
+        this.cacheTtls = Map.of();
+        this.asyncIdentifiers = Set.of();
+        this.asyncPrefixes = List.of();
+        
+        registerInternalPlaceholders();
+    }
+    
+    /**
+     * Register placeholders resolved by the plugin itself
+     */
+    private void registerInternalPlaceholders() {
+        internalPlaceholders.put("player_name", Player::getName);
+        internalPlaceholders.put("player_displayname", Player::getDisplayName);
+        internalPlaceholders.put("server_online", player -> String.valueOf(Bukkit.getOnlinePlayers().size()));
+        internalPlaceholders.put("server_max", player -> String.valueOf(Bukkit.getMaxPlayers()));
+    }
+    
+    /**
+     * Detect available placeholder integrations.
+     * Called after the configuration is loaded, so lookups never have to check again.
+     */
+    public void load() {
+        boolean configured = plugin.getConfigManager().get("integrations.placeholder-api.enabled", true);
+        this.placeholderApiEnabled = configured && Bukkit.getPluginManager().getPlugin("PlaceholderAPI") != null;
+        
+        if (placeholderApiEnabled) {
+            plugin.getLogger().info("Hooked into PlaceholderAPI");
+        }
+        
+        // Cache lifetimes in ticks, per placeholder identifier
+        this.defaultCacheTtl = plugin.getConfigManager().get("placeholders.cache.default-ttl", 0);
+        Map<String, Integer> ttls = new HashMap<>();
+        ConfigurationSection ttlSection = plugin.getConfigManager().getConfig()
+            .getConfigurationSection("placeholders.cache.ttl");
+        if (ttlSection != null) {
+            for (String identifier : ttlSection.getKeys(false)) {
+                ttls.put(identifier, ttlSection.getInt(identifier));
+            }
+        }
+        this.cacheTtls = ttls;
+        
+        // Placeholders that may be resolved off the main thread, "prefix_*" matches a whole expansion
+        this.asyncEnabled = plugin.getConfigManager().get("placeholders.async.enabled", false);
+        this.asyncLoadingText = plugin.getConfigManager().get("placeholders.async.loading-text", "...");
+        this.asyncResultTtl = Math.max(1, plugin.getConfigManager().get("placeholders.async.result-ttl", 20));
+        Set<String> identifiers = new HashSet<>();
+        List<String> prefixes = new ArrayList<>();
+        for (String entry : plugin.getConfigManager().getConfig().getStringList("placeholders.async.thread-safe")) {
+            if (entry.endsWith("*")) {
+                prefixes.add(entry.substring(0, entry.length() - 1));
+            } else {
+                identifiers.add(entry);
+            }
+        }
+        this.asyncIdentifiers = identifiers;
+        this.asyncPrefixes = prefixes;
+        
+        // Lifetimes may have changed, start from a clean cache
+        playerCaches.clear();
+        failedIdentifiers.clear();
+    }
+    
+    /**
+     * Resolve a single placeholder identifier (without the surrounding '%') for a player
+     */
+    public String resolve(Player player, String identifier) {
+        Function<Player, String> internal = internalPlaceholders.get(identifier.toLowerCase());
+        if (internal != null) {
+            return internal.apply(player);
+        }
+        
+        if (!placeholderApiEnabled) {
+            return "%" + identifier + "%";
+        }
+        
+        if (asyncEnabled && isAsyncSafe(identifier)) {
+            return resolveAsync(player, identifier);
+        }
+        
+        int ttl = getCacheTtl(identifier);
+        if (ttl <= 0) {
+            return resolveExternal(player, identifier);
+        }
+        
+        Map<String, CachedValue> cache = playerCaches.computeIfAbsent(
+            player.getUniqueId(), id -> new ConcurrentHashMap<>());
+        int currentTick = Bukkit.getCurrentTick();
+        
+        CachedValue cached = cache.get(identifier);
+        if (cached != null && currentTick < cached.expiresAt()) {
+            cacheHits.increment();
+            return cached.value();
+        }
+        
+        cacheMisses.increment();
+        String value = resolveExternal(player, identifier);
+        cache.put(identifier, new CachedValue(value, currentTick + ttl));
+        return value;
+    }
+    
+    /**
+     * Resolve a thread-safe placeholder without blocking.
+     * Returns the cached value, a stale value while it refreshes, or the loading text on first use.
+     */
+    private String resolveAsync(Player player, String identifier) {
+        UUID playerId = player.getUniqueId();
+        Map<String, CachedValue> cache = playerCaches.computeIfAbsent(playerId, id -> new ConcurrentHashMap<>());
+        
+        CachedValue cached = cache.get(identifier);
+        if (cached != null && Bukkit.getCurrentTick() < cached.expiresAt()) {
+            cacheHits.increment();
+            return cached.value();
+        }
+        
+        cacheMisses.increment();
+        PendingKey key = new PendingKey(playerId, identifier);
+        if (pendingResolutions.add(key)) {
+            int ttl = getCacheTtl(identifier);
+            int lifetime = ttl > 0 ? ttl : asyncResultTtl;
+            
+            // The expansion runs off the main thread, so it only gets a snapshot, never the live player
+            OfflinePlayer snapshot = PlayerSnapshot.of(player);
+            plugin.getWorkerPool().supply(() -> resolveExternal(snapshot, identifier))
+                .whenComplete((value, error) -> {
+                    pendingResolutions.remove(key);
+                    if (error != null) {
+                        logFailure(identifier, error);
+                        // Cached like a value, so a failing expansion is not called again before the lifetime ends
+                        value = cached != null ? cached.value() : "%" + identifier + "%";
+                    }
+                    
+                    // The player may have quit while the value was resolving
+                    Map<String, CachedValue> playerCache = playerCaches.get(playerId);
+                    if (playerCache != null) {
+                        playerCache.put(identifier, new CachedValue(value, Bukkit.getCurrentTick() + lifetime));
+                        requestRefresh(playerId);
+                    }
+                });
+        }
+        
+        return cached != null ? cached.value() : asyncLoadingText;
+    }
+    
+    /**
+     * Warn about a failing async placeholder once until the next reload, with the stack trace in debug mode
+     */
+    private void logFailure(String identifier, Throwable error) {
+        if (!failedIdentifiers.add(identifier)) {
+            return;
+        }
+        Throwable cause = error.getCause() != null ? error.getCause() : error;
+        String message = "Failed to resolve placeholder %" + identifier + "% off the main thread: " + cause
+            + " (further failures are not logged until reload)";
+        if (plugin.getConfigManager().isDebugMode()) {
+            plugin.getLogger().log(Level.WARNING, message, cause);
+        } else {
+            plugin.getLogger().warning(message);
+        }
+    }
+    
+    /**
+     * Re-render the open menu of a player on the next tick, batching all results that arrive meanwhile
+     */
+    private void requestRefresh(UUID playerId) {
+        pendingRefreshes.add(playerId);
+        if (refreshScheduled.compareAndSet(false, true) && plugin.isEnabled()) {
+            Bukkit.getScheduler().runTask(plugin, this::flushRefreshes);
+        }
+    }
+    
+    /**
+     * Apply resolved async values to open menus, runs on the main thread
+     */
+    private void flushRefreshes() {
+        refreshScheduled.set(false);
+        
+        for (UUID playerId : new ArrayList<>(pendingRefreshes)) {
+            pendingRefreshes.remove(playerId);
+            
+            Player player = Bukkit.getPlayer(playerId);
+            if (player == null) continue;
+            
+            MenuSession session = plugin.getMenuManager().getSession(player);
+            if (session != null) {
+                session.render();
+            }
+        }
+    }
+    
+    /**
+     * Check if a placeholder is whitelisted for off-main-thread resolution
+     */
+    public boolean isAsyncSafe(String identifier) {
+        if (asyncIdentifiers.contains(identifier)) {
+            return true;
+        }
+        for (String prefix : asyncPrefixes) {
+            if (identifier.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    /**
+     * Resolve a placeholder through PlaceholderAPI, bypassing the cache
+     */
+    private String resolveExternal(OfflinePlayer player, String identifier) {
+        return PlaceholderAPI.setPlaceholders(player, "%" + identifier + "%");
+    }
+    
+    /**
+     * Get how many ticks a resolved value of a placeholder stays cached
+     */
+    public int getCacheTtl(String identifier) {
+        Integer ttl = cacheTtls.get(identifier);
+        return ttl != null ? ttl : defaultCacheTtl;
+    }
+    
+    /**
+     * Drop all cached values of a player
+     */
+    public void invalidate(UUID playerId) {
+        Map<String, CachedValue> cache = playerCaches.remove(playerId);
+        if (cache != null) {
+            cacheEvictions.add(cache.size());
+        }
+    }
+    
+    /**
+     * Drop expired values from all player caches
+     *
+     * @return number of removed values
+     */
+    public int cleanupCache() {
+        int currentTick = Bukkit.getCurrentTick();
+        int removed = 0;
+        
+        for (Map<String, CachedValue> cache : playerCaches.values()) {
+            int before = cache.size();
+            cache.values().removeIf(cached -> currentTick >= cached.expiresAt());
+            removed += before - cache.size();
+        }
+        
+        cacheEvictions.add(removed);
+        return removed;
+    }
+    
+    /**
+     * Get placeholder cache counters
+     */
+    public CacheStats getCacheStats() {
+        int size = 0;
+        for (Map<String, CachedValue> cache : playerCaches.values()) {
+            size += cache.size();
+        }
+        return new CacheStats(cacheHits.sum(), cacheMisses.sum(), cacheEvictions.sum(), size);
+    }
+    
+    /**
+     * Register an internal placeholder
+     */
+    public void registerPlaceholder(String identifier, Function<Player, String> resolver) {
+        internalPlaceholders.put(identifier.toLowerCase(), resolver);
+    }
+    
+    /**
+     * Remove an internal placeholder registered with {@link #registerPlaceholder}
+     */
+    public void unregisterPlaceholder(String identifier) {
+        internalPlaceholders.remove(identifier.toLowerCase());
+    }
+    
+    public boolean isPlaceholderApiEnabled() {
+        return placeholderApiEnabled;
     }
     
     public void unregister() {
-        // TODO: Implement placeholder unregistration
+        playerCaches.clear();
+    }
+    
+    /**
+     * A resolved value and the tick it stops being valid
+     */
+    private record CachedValue(String value, int expiresAt) {
+    }
+    
+    /**
+     * Check if text contains any placeholder tokens
+     */
+    public static boolean hasPlaceholders(String text) {
+        if (text == null || text.isEmpty()) {
+            return false;
+        }
+        return text.indexOf('%') >= 0 && PLACEHOLDER_PATTERN.matcher(text).find();
+    }
+    
+    /**
+     * A placeholder currently being resolved for a player
+     */
+    private record PendingKey(UUID playerId, String identifier) {
     }
 }
@@ -0,0 +1,215 @@
+package dev.azuremyst.azuremenus.placeholders;
+
+import dev.azuremyst.azuremenus.AzureMenusPlugin;
+import org.bukkit.entity.Player;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.UnaryOperator;
+
+/**
+ * A configured string split once into literal and placeholder segments.
+ * Evaluation is a single pass, and strings without placeholders skip placeholder work entirely.
+ */
+public final class PlaceholderTemplate {
+    
+    private static final PlaceholderTemplate EMPTY = new PlaceholderTemplate("", new String[0], new boolean[0]);
+    
+    private final String source;
+    private final String[] segments;
+    private final boolean[] placeholders;
+    
+    private PlaceholderTemplate(String source, String[] segments, boolean[] placeholders) {
+        this.source = source;
+        this.segments = segments;
+        this.placeholders = placeholders;
+    }
+    
+    /**
+     * Compile a string into a template.
+     * A placeholder is %identifier% where the identifier is non-empty and contains no whitespace.
+     */
+    public static PlaceholderTemplate compile(String text) {
+        if (text == null || text.isEmpty()) {
+            return EMPTY;
+        }
+        
+        List<String> segments = new ArrayList<>();
+        List<Boolean> placeholders = new ArrayList<>();
+        
+        int literalStart = 0;
+        int index = text.indexOf('%');
+        while (index >= 0) {
+            int end = text.indexOf('%', index + 1);
+            if (end < 0) {
+                break;
+            }
+            
+            if (isIdentifier(text, index + 1, end)) {
+                if (index > literalStart) {
+                    segments.add(text.substring(literalStart, index));
+                    placeholders.add(false);
+                }
+                segments.add(text.substring(index + 1, end));
+                placeholders.add(true);
+                
+                literalStart = end + 1;
+                index = text.indexOf('%', literalStart);
+            } else {
+                // The closing '%' may open the next placeholder
+                index = end;
+            }
+        }
+        
+        if (placeholders.isEmpty()) {
+            return new PlaceholderTemplate(text, new String[]{text}, new boolean[]{false});
+        }
+        
+        if (literalStart < text.length()) {
+            segments.add(text.substring(literalStart));
+            placeholders.add(false);
+        }
+        
+        boolean[] flags = new boolean[placeholders.size()];
+        for (int i = 0; i < flags.length; i++) {
+            flags[i] = placeholders.get(i);
+        }
+        return new PlaceholderTemplate(text, segments.toArray(new String[0]), flags);
+    }
+    
+    /**
+     * Build a template from segments that are already split.
+     * Adjacent literal segments are merged; literal text is never scanned for placeholders.
+     */
+    public static PlaceholderTemplate of(List<String> segments, List<Boolean> placeholders) {
+        List<String> merged = new ArrayList<>(segments.size());
+        List<Boolean> flags = new ArrayList<>(segments.size());
+        StringBuilder source = new StringBuilder();
+        StringBuilder literal = new StringBuilder();
+        
+        for (int i = 0; i < segments.size(); i++) {
+            String segment = segments.get(i);
+            if (!placeholders.get(i)) {
+                literal.append(segment);
+                source.append(segment);
+                continue;
+            }
+            if (!literal.isEmpty()) {
+                merged.add(literal.toString());
+                flags.add(false);
+                literal.setLength(0);
+            }
+            merged.add(segment);
+            flags.add(true);
+            source.append('%').append(segment).append('%');
+        }
+        if (!literal.isEmpty() || merged.isEmpty()) {
+            merged.add(literal.toString());
+            flags.add(false);
+        }
+        
+        if (source.isEmpty()) {
+            return EMPTY;
+        }
+        boolean[] flagArray = new boolean[flags.size()];
+        for (int i = 0; i < flagArray.length; i++) {
+            flagArray[i] = flags.get(i);
+        }
+        return new PlaceholderTemplate(source.toString(), merged.toArray(new String[0]), flagArray);
+    }
+    
+    /**
+     * Check if the range between two '%' signs is a valid identifier
+     */
+    private static boolean isIdentifier(String text, int start, int end) {
+        if (start >= end) {
+            return false;
+        }
+        for (int i = start; i < end; i++) {
+            if (Character.isWhitespace(text.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    /**
+     * Evaluate this template for a player
+     */
+    public String apply(Player player) {
+        if (isConstant()) {
+            return source;
+        }
+        
+        PlaceholderService service = AzureMenusPlugin.getInstance().getPlaceholderService();
+        return apply(identifier -> service.resolve(player, identifier));
+    }
+    
+    /**
+     * Evaluate this template with a custom placeholder resolver
+     */
+    public String apply(UnaryOperator<String> resolver) {
+        if (isConstant()) {
+            return source;
+        }
+        
+        StringBuilder result = new StringBuilder(source.length() + 16);
+        for (int i = 0; i < segments.length; i++) {
+            if (placeholders[i]) {
+                result.append(resolver.apply(segments[i]));
+            } else {
+                result.append(segments[i]);
+            }
+        }
+        return result.toString();
+    }
+    
+    /**
+     * Get the number of literal and placeholder segments
+     */
+    public int size() {
+        return segments.length;
+    }
+    
+    /**
+     * Get a segment: literal text, or a placeholder identifier without the surrounding '%'
+     */
+    public String getSegment(int index) {
+        return segments[index];
+    }
+    
+    public boolean isPlaceholder(int index) {
+        return placeholders[index];
+    }
+    
+    /**
+     * Check if this template contains no placeholders
+     */
+    public boolean isConstant() {
+        return segments.length <= 1 && (segments.length == 0 || !placeholders[0]);
+    }
+    
+    /**
+     * Get the identifiers of all placeholders in this template, in order of appearance
+     */
+    public Set<String> getIdentifiers() {
+        Set<String> identifiers = new LinkedHashSet<>();
+        for (int i = 0; i < segments.length; i++) {
+            if (placeholders[i]) {
+                identifiers.add(segments[i]);
+            }
+        }
+        return identifiers;
+    }
+    
+    public String getSource() {
+        return source;
+    }
+    
+    @Override
+    public String toString() {
+        return source;
+    }
+}
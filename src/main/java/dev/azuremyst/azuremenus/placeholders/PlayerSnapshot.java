@@ -0,0 +1,89 @@
+package dev.azuremyst.azuremenus.placeholders;
+
+import org.bukkit.OfflinePlayer;
+import org.bukkit.entity.Player;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * An immutable OfflinePlayer view of a player, taken on the main thread.
+ * Handed to expansions resolved on the worker pool, so they never reach the live player.
+ * It answers like an offline player: isOnline() is false, getPlayer() returns null
+ * and methods not captured here return empty values.
+ */
+final class PlayerSnapshot implements InvocationHandler {
+    
+    private final UUID id;
+    private final Map<String, Object> values;
+    
+    private PlayerSnapshot(Player player) {
+        this.id = player.getUniqueId();
+        this.values = Map.of(
+            "getUniqueId", id,
+            "getName", player.getName(),
+            "isOnline", false,
+            "hasPlayedBefore", player.hasPlayedBefore(),
+            "getFirstPlayed", player.getFirstPlayed(),
+            "getLastPlayed", player.getLastPlayed(),
+            "isOp", player.isOp(),
+            "isWhitelisted", player.isWhitelisted()
+        );
+    }
+    
+    /**
+     * Take a snapshot of a player, must be called on the main thread
+     */
+    static OfflinePlayer of(Player player) {
+        return (OfflinePlayer) Proxy.newProxyInstance(OfflinePlayer.class.getClassLoader(),
+            new Class<?>[]{OfflinePlayer.class}, new PlayerSnapshot(player));
+    }
+    
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) {
+        String name = method.getName();
+        if (args == null || args.length == 0) {
+            Object value = values.get(name);
+            if (value != null) {
+                return value;
+            }
+            if (name.equals("hashCode")) {
+                return id.hashCode();
+            }
+            if (name.equals("toString")) {
+                return "PlayerSnapshot{" + values.get("getName") + "}";
+            }
+        } else if (name.equals("equals") && args.length == 1) {
+            return args[0] instanceof OfflinePlayer other && id.equals(other.getUniqueId());
+        }
+        return emptyValue(method.getReturnType());
+    }
+    
+    private static Object emptyValue(Class<?> type) {
+        if (!type.isPrimitive() || type == void.class) {
+            return null;
+        }
+        if (type == boolean.class) {
+            return false;
+        }
+        if (type == char.class) {
+            return '\0';
+        }
+        if (type == float.class) {
+            return 0f;
+        }
+        if (type == double.class) {
+            return 0d;
+        }
+        if (type == long.class) {
+            return 0L;
+        }
+        if (type == int.class) {
+            return 0;
+        }
+        return type == short.class ? (Object) (short) 0 : (Object) (byte) 0;
+    }
+}
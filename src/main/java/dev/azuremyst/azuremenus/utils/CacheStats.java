@@ -0,0 +1,21 @@
+package dev.azuremyst.azuremenus.utils;
+
+/**
+ * Snapshot of cache counters
+ */
+public record CacheStats(long hits, long misses, long evictions, int size) {
+    
+    /**
+     * Fraction of lookups served from the cache
+     */
+    public double hitRate() {
+        long total = hits + misses;
+        return total == 0 ? 0.0 : (double) hits / total;
+    }
+    
+    @Override
+    public String toString() {
+        return String.format("size=%d, hits=%d, misses=%d, evictions=%d, hit-rate=%.1f%%",
+            size, hits, misses, evictions, hitRate() * 100);
+    }
+}
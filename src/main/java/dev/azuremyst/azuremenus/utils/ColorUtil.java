@@ -15,6 +15,9 @@ public class ColorUtil {
     private static final MiniMessage miniMessage = MiniMessage.miniMessage();
     private static final LegacyComponentSerializer legacySerializer = LegacyComponentSerializer.legacyAmpersand();
     
+    // Parsed components keyed by their resolved MiniMessage source; components are immutable and safe to share
+    private static final LruCache<String, Component> componentCache = new LruCache<>(5000);
+    
     // AzureMyst signature colors
     public static final String AZURE_PURPLE = "#8A2BE2"; // BlueViolet
     public static final String AZURE_CYAN = "#00BFFF";   // DeepSkyBlue
@@ -28,13 +31,52 @@ public class ColorUtil {
     private static final Pattern GRADIENT_PATTERN = Pattern.compile("<gradient:[^>]+>");
     
     /**
-     * Parse MiniMessage format to Component
+     * Parse MiniMessage format to Component.
+     * Results are cached, so identical text is only deserialized once.
      */
     public static Component parseComponent(String text) {
         if (text == null || text.isEmpty()) {
             return Component.empty();
         }
-        return miniMessage.deserialize(text);
+        return componentCache.get(text, miniMessage::deserialize);
+    }
+    
+    /**
+     * Escape MiniMessage tags, so text from outside the configuration is shown as it is
+     */
+    public static String escapeTags(String text) {
+        if (text == null || text.indexOf('<') < 0) {
+            return text;
+        }
+        return miniMessage.escapeTags(text);
+    }
+    
+    /**
+     * Set the maximum number of cached components (0 disables caching)
+     */
+    public static void setCacheSize(int maxSize) {
+        componentCache.setMaxSize(maxSize);
+    }
+    
+    /**
+     * Drop cached components that were not used within the given time
+     */
+    public static int cleanupCache(long idleMillis) {
+        return componentCache.removeIdle(idleMillis);
+    }
+    
+    /**
+     * Clear the component cache
+     */
+    public static void clearCache() {
+        componentCache.clear();
+    }
+    
+    /**
+     * Get component cache counters
+     */
+    public static CacheStats getCacheStats() {
+        return componentCache.getStats();
     }
     
     /**
@@ -0,0 +1,173 @@
+package dev.azuremyst.azuremenus.utils;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+/**
+ * Thread-safe, size-bounded cache with approximate least-recently-used eviction and hit/miss counters.
+ * Reads never lock: a hit only records its access time, and entries are evicted in batches
+ * by one thread at a time once the cache grows past its size.
+ */
+public class LruCache<K, V> {
+    
+    private final ConcurrentHashMap<K, Entry<V>> entries;
+    private final ReentrantLock trimLock;
+    private final LongAdder hits;
+    private final LongAdder misses;
+    private final LongAdder evictions;
+    private volatile int maxSize;
+    
+    public LruCache(int maxSize) {
+        this.entries = new ConcurrentHashMap<>();
+        this.trimLock = new ReentrantLock();
+        this.hits = new LongAdder();
+        this.misses = new LongAdder();
+        this.evictions = new LongAdder();
+        this.maxSize = Math.max(0, maxSize);
+    }
+    
+    /**
+     * Get a cached value, computing it on a miss
+     */
+    public V get(K key, Function<K, V> loader) {
+        Entry<V> entry = entries.get(key);
+        if (entry != null) {
+            // Hot entries are read by many threads, only write when the time actually moved
+            long now = System.currentTimeMillis();
+            if (entry.lastAccess != now) {
+                entry.lastAccess = now;
+            }
+            hits.increment();
+            return entry.value;
+        }
+        
+        misses.increment();
+        V value = loader.apply(key);
+        if (maxSize == 0) {
+            return value;
+        }
+        
+        entries.putIfAbsent(key, new Entry<>(value));
+        if (entries.size() > maxSize) {
+            trim();
+        }
+        return value;
+    }
+    
+    /**
+     * Change the maximum size, evicting entries if the cache is now too large
+     */
+    public void setMaxSize(int maxSize) {
+        this.maxSize = Math.max(0, maxSize);
+        if (entries.size() > this.maxSize) {
+            trimLock.lock();
+            try {
+                evictOldest(entries.size() - this.maxSize);
+            } finally {
+                trimLock.unlock();
+            }
+        }
+    }
+    
+    /**
+     * Remove entries that have not been used within the given time
+     *
+     * @return number of removed entries
+     */
+    public int removeIdle(long idleMillis) {
+        long cutoff = System.currentTimeMillis() - idleMillis;
+        int removed = 0;
+        
+        Iterator<Entry<V>> iterator = entries.values().iterator();
+        while (iterator.hasNext()) {
+            if (iterator.next().lastAccess < cutoff) {
+                iterator.remove();
+                removed++;
+            }
+        }
+        
+        evictions.add(removed);
+        return removed;
+    }
+    
+    /**
+     * Remove all entries
+     */
+    public void clear() {
+        entries.clear();
+    }
+    
+    /**
+     * Get current counters
+     */
+    public CacheStats getStats() {
+        return new CacheStats(hits.sum(), misses.sum(), evictions.sum(), entries.size());
+    }
+    
+    /**
+     * Evict down to 90% of the size limit, so eviction runs once per batch of misses.
+     * Threads that find another one already evicting skip it instead of waiting.
+     */
+    private void trim() {
+        if (!trimLock.tryLock()) {
+            return;
+        }
+        try {
+            int limit = maxSize;
+            int excess = entries.size() - limit;
+            if (excess > 0) {
+                evictOldest(excess + limit / 10);
+            }
+        } finally {
+            trimLock.unlock();
+        }
+    }
+    
+    /**
+     * Remove about count least recently used entries, caller must hold the trim lock
+     */
+    private void evictOldest(int count) {
+        long[] accessTimes = new long[entries.size()];
+        int size = 0;
+        for (Entry<V> entry : entries.values()) {
+            if (size == accessTimes.length) {
+                break;
+            }
+            accessTimes[size++] = entry.lastAccess;
+        }
+        if (size == 0 || count <= 0) {
+            return;
+        }
+        
+        Arrays.sort(accessTimes, 0, size);
+        long cutoff = accessTimes[Math.min(count, size) - 1];
+        
+        int removed = 0;
+        Iterator<Map.Entry<K, Entry<V>>> iterator = entries.entrySet().iterator();
+        while (removed < count && iterator.hasNext()) {
+            if (iterator.next().getValue().lastAccess <= cutoff) {
+                iterator.remove();
+                removed++;
+            }
+        }
+        evictions.add(removed);
+    }
+    
+    /**
+     * Cached value with its last access time
+     */
+    private static final class Entry<V> {
+        private final V value;
+        private volatile long lastAccess;
+        
+        private Entry(V value) {
+            this.value = value;
+            this.lastAccess = System.currentTimeMillis();
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package dev.azuremyst.azuremenus.utils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Hashed timing wheel for tick-based scheduling.
+ * Scheduling is O(1), and each tick only looks at the one bucket that can contain due tasks.
+ * Not thread-safe, meant to be driven from the main thread.
+ */
+public class TimingWheel<T> {
+    
+    private final List<Entry<T>>[] buckets;
+    private final int mask;
+    private long currentTick;
+    private int size;
+    
+    /**
+     * @param wheelSize number of buckets, rounded up to a power of two
+     */
+    @SuppressWarnings("unchecked")
+    public TimingWheel(int wheelSize) {
+        int buckets = Integer.highestOneBit(Math.max(2, wheelSize) - 1) << 1;
+        this.buckets = new List[buckets];
+        for (int i = 0; i < buckets; i++) {
+            this.buckets[i] = new ArrayList<>();
+        }
+        this.mask = buckets - 1;
+    }
+    
+    /**
+     * Schedule a task to come due after the given number of ticks (at least one)
+     */
+    public void schedule(T task, long delayTicks) {
+        long dueTick = currentTick + Math.max(1, delayTicks);
+        buckets[(int) (dueTick & mask)].add(new Entry<>(task, dueTick));
+        size++;
+    }
+    
+    /**
+     * Advance the wheel by one tick and hand every task that came due to the consumer
+     */
+    public void advance(Consumer<T> consumer) {
+        currentTick++;
+        List<Entry<T>> bucket = buckets[(int) (currentTick & mask)];
+        if (bucket.isEmpty()) {
+            return;
+        }
+        
+        // Tasks more than one rotation away share the bucket and stay put
+        List<T> due = new ArrayList<>();
+        bucket.removeIf(entry -> {
+            if (entry.dueTick() <= currentTick) {
+                due.add(entry.task());
+                return true;
+            }
+            return false;
+        });
+        
+        size -= due.size();
+        due.forEach(consumer);
+    }
+    
+    /**
+     * Remove all scheduled tasks
+     */
+    public void clear() {
+        for (List<Entry<T>> bucket : buckets) {
+            bucket.clear();
+        }
+        size = 0;
+    }
+    
+    /**
+     * Get the number of ticks this wheel has advanced
+     */
+    public long getCurrentTick() {
+        return currentTick;
+    }
+    
+    /**
+     * Get the number of scheduled tasks
+     */
+    public int size() {
+        return size;
+    }
+    
+    private record Entry<T>(T task, long dueTick) {
+    }
+}
@@ -0,0 +1,100 @@
+package dev.azuremyst.azuremenus.utils;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.logging.Logger;
+
+/**
+ * Shared pool for work that must stay off the main server thread
+ */
+public class WorkerPool {
+    
+    private final Logger logger;
+    private final ExecutorService executor;
+    // Always on virtual threads, for tasks that may block on I/O for long
+    private final ExecutorService virtualExecutor;
+    private final boolean virtualThreads;
+    
+    public WorkerPool(Logger logger, boolean virtualThreads, int threads) {
+        this.logger = logger;
+        this.virtualThreads = virtualThreads;
+        
+        if (virtualThreads) {
+            this.executor = Executors.newThreadPerTaskExecutor(
+                Thread.ofVirtual().name("AzureMenus-Virtual-", 0).factory());
+        } else {
+            this.executor = Executors.newFixedThreadPool(Math.max(1, threads), new WorkerThreadFactory());
+        }
+        this.virtualExecutor = virtualThreads ? executor : Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("AzureMenus-Virtual-", 0).factory());
+    }
+    
+    /**
+     * Run a task on the pool and complete the future with its result
+     */
+    public <T> CompletableFuture<T> supply(Supplier<T> task) {
+        return CompletableFuture.supplyAsync(task, executor);
+    }
+    
+    /**
+     * Run a task on the pool
+     */
+    public CompletableFuture<Void> run(Runnable task) {
+        return CompletableFuture.runAsync(task, executor);
+    }
+    
+    /**
+     * Run a task on its own virtual thread, even when the pool uses platform threads
+     */
+    public <T> CompletableFuture<T> supplyVirtual(Supplier<T> task) {
+        return CompletableFuture.supplyAsync(task, virtualExecutor);
+    }
+    
+    /**
+     * Stop accepting work and wait briefly for running tasks
+     */
+    public void shutdown() {
+        if (virtualExecutor != executor) {
+            // Virtual tasks are blocking I/O by nature, do not wait for them
+            virtualExecutor.shutdownNow();
+        }
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(5, TimeUnit.SECONDS)) {
+                logger.warning("Worker pool did not finish in time, interrupting remaining tasks");
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+    
+    public Executor getExecutor() {
+        return executor;
+    }
+    
+    public boolean isVirtualThreads() {
+        return virtualThreads;
+    }
+    
+    /**
+     * Named daemon threads so a stuck task never blocks server shutdown
+     */
+    private static final class WorkerThreadFactory implements ThreadFactory {
+        private final AtomicInteger counter = new AtomicInteger();
+        
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "AzureMenus-Worker-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package dev.azuremyst.azuremenus.leaderboard;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RankIndexTest {
+    
+    private static final Comparator<RankEntry> ORDER = Comparator
+        .comparingDouble(RankEntry::score).reversed()
+        .thenComparing(RankEntry::id);
+    
+    @Test
+    void matchesSortedListAfterRandomChanges() {
+        Random random = new Random(42);
+        List<UUID> ids = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            ids.add(new UUID(random.nextLong(), random.nextLong()));
+        }
+        
+        RankIndex index = new RankIndex();
+        Map<UUID, RankEntry> expected = new HashMap<>();
+        for (int step = 0; step < 5000; step++) {
+            UUID id = ids.get(random.nextInt(ids.size()));
+            if (random.nextInt(4) == 0) {
+                assertEquals(expected.remove(id) != null, index.remove(id));
+            } else {
+                // Few distinct scores, so many entries tie and are ordered by id
+                double score = random.nextInt(20);
+                index.put(id, "player" + step, score);
+                expected.put(id, new RankEntry(0, id, "player" + step, score));
+            }
+            
+            if (step % 50 == 0) {
+                assertMatches(expected, index, random);
+            }
+        }
+        assertMatches(expected, index, random);
+    }
+    
+    @Test
+    void emptyIndex() {
+        RankIndex index = new RankIndex();
+        UUID id = UUID.randomUUID();
+        
+        assertEquals(0, index.size());
+        assertEquals(0, index.rank(id));
+        assertNull(index.get(id));
+        assertTrue(index.range(0, 10).isEmpty());
+        assertFalse(index.remove(id));
+    }
+    
+    private static void assertMatches(Map<UUID, RankEntry> expected, RankIndex index, Random random) {
+        List<RankEntry> sorted = new ArrayList<>(expected.values());
+        sorted.sort(ORDER);
+        
+        assertEquals(sorted.size(), index.size());
+        for (int i = 0; i < sorted.size(); i++) {
+            RankEntry entry = sorted.get(i);
+            RankEntry ranked = new RankEntry(i + 1, entry.id(), entry.name(), entry.score());
+            assertEquals(i + 1, index.rank(entry.id()));
+            assertEquals(ranked, index.get(entry.id()));
+        }
+        assertEquals(ranked(sorted, 0, sorted.size()), index.entries());
+        
+        // Ranges starting anywhere, including past the end
+        for (int i = 0; i < 20; i++) {
+            int offset = random.nextInt(sorted.size() + 5);
+            int limit = random.nextInt(30);
+            assertEquals(ranked(sorted, offset, limit), index.range(offset, limit));
+        }
+    }
+    
+    private static List<RankEntry> ranked(List<RankEntry> sorted, int offset, int limit) {
+        List<RankEntry> entries = new ArrayList<>();
+        for (int i = offset; i < sorted.size() && entries.size() < limit; i++) {
+            RankEntry entry = sorted.get(i);
+            entries.add(new RankEntry(i + 1, entry.id(), entry.name(), entry.score()));
+        }
+        return entries;
+    }
+}